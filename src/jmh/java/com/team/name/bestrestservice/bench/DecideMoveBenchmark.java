@@ -0,0 +1,55 @@
+package com.team.name.bestrestservice.bench;
+
+import com.team.name.bestrestservice.BoardCorpus;
+import com.team.name.bestrestservice.DecisionEngine;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.SpaceshipAiV0;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of one decision, board encoding included, over a rotating set of boards
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecideMoveBenchmark {
+
+    private static final int BOARDS = 64;
+
+    @Param({"v1", "v0"})
+    public String engine;
+
+    @Param({"OPEN", "CLUTTERED", "CROWDED", "NARROWING"})
+    public BoardCorpus.Kind kind;
+
+    private DecisionEngine ai;
+    private String[][][] fields;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ai = "v0".equals(engine) ? new SpaceshipAiV0() : new SpaceshipAI();
+        List<String[][]> boards = BoardCorpus.boards(kind, BOARDS, 42);
+        fields = boards.toArray(new String[0][][]);
+    }
+
+    @Benchmark
+    public String decideMove() {
+        String[][] field = fields[next++ & (BOARDS - 1)];
+        return ai.decideMove(new SpaceshipAI.GameStatus(field, 10, 1));
+    }
+}
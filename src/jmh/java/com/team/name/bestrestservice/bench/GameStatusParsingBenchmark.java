@@ -0,0 +1,58 @@
+package com.team.name.bestrestservice.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.team.name.bestrestservice.BoardCorpus;
+import com.team.name.bestrestservice.SpaceshipAI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Request body binding as the /move endpoint does it
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameStatusParsingBenchmark {
+
+    private static final int BOARDS = 64;
+
+    private ObjectMapper mapper;
+    private byte[][] payloads;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Same builder and constructor-binding module the Spring Boot converter uses
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        mapper.registerModule(new ParameterNamesModule());
+        List<String[][]> boards = BoardCorpus.boards(BoardCorpus.Kind.CROWDED, BOARDS, 7);
+        payloads = new byte[BOARDS][];
+        for (int i = 0; i < BOARDS; i++) {
+            payloads[i] = mapper.writeValueAsBytes(new SpaceshipAI.GameStatus(boards.get(i), 10, i));
+        }
+    }
+
+    @Benchmark
+    public SpaceshipAI.GameStatus bind() throws Exception {
+        return mapper.readValue(payloads[next++ & (BOARDS - 1)], SpaceshipAI.GameStatus.class);
+    }
+
+    @Benchmark
+    public Object bindAndEncode() throws Exception {
+        return mapper.readValue(payloads[next++ & (BOARDS - 1)], SpaceshipAI.GameStatus.class).getBoard();
+    }
+}
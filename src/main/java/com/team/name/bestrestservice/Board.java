@@ -0,0 +1,374 @@
+package com.team.name.bestrestservice;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+public final class Board {
+
+    // The standard arena; formats with a fixed layout (the binary channel,
+    // the journal) carry boards of this size only
+    public static final int SIZE = 13;
+    public static final int CELLS = SIZE * SIZE;
+    // Larger fields are cut to this many rows and columns
+    public static final int MAX_SIZE = 512;
+
+    // Low three bits of a cell hold what occupies it
+    public static final byte EMPTY = 0;
+    public static final byte ASTEROID = 1;
+    public static final byte COIN = 2;
+    public static final byte PLAYER = 3;
+    public static final byte ENEMY = 4;
+    public static final byte OTHER = 5;
+    public static final int TYPE_MASK = 0x07;
+
+    // Ships additionally carry a heading in bits 3-4, flagged by bit 5
+    public static final int HEADING_SHIFT = 3;
+    public static final int HAS_HEADING = 0x20;
+
+    // Headings, clockwise, matching "NESW"
+    public static final int NORTH = 0;
+    public static final int EAST = 1;
+    public static final int SOUTH = 2;
+    public static final int WEST = 3;
+    public static final int NO_HEADING = -1;
+
+    private static final int[] DX = {0, 1, 0, -1};
+    private static final int[] DY = {-1, 0, 1, 0};
+    private static final String HEADINGS = "NESW";
+
+    private final int width;
+    private final int height;
+    private final byte[] cells;
+    // Ships and coins are listed as they are put, so nothing has to scan the grid for them
+    private int[] enemies = new int[8];
+    private int[] coins = new int[8];
+    private int enemyCount;
+    private int coinCount;
+    private int player = -1;
+
+    public Board() {
+        this(SIZE, SIZE);
+    }
+
+    public Board(int width, int height) {
+        if (width < 1 || height < 1 || width > MAX_SIZE || height > MAX_SIZE) {
+            throw new IllegalArgumentException("Board must be between 1x1 and " + MAX_SIZE + "x" + MAX_SIZE);
+        }
+        this.width = width;
+        this.height = height;
+        this.cells = new byte[width * height];
+    }
+
+    // Takes its size from the field: as many rows as it has and as many
+    // columns as its longest row; missing cells are empty
+    public static Board of(String[][] field) {
+        int height = field == null ? 0 : Math.min(field.length, MAX_SIZE);
+        int width = 0;
+        for (int y = 0; y < height; y++) {
+            if (field[y] != null) {
+                width = Math.max(width, Math.min(field[y].length, MAX_SIZE));
+            }
+        }
+        if (width == 0) {
+            return new Board();
+        }
+        Board board = new Board(width, height);
+        for (int y = 0; y < height; y++) {
+            String[] row = field[y];
+            if (row == null) {
+                continue;
+            }
+            for (int x = 0; x < width && x < row.length; x++) {
+                board.put(board.index(x, y), encode(row[x]));
+            }
+        }
+        return board;
+    }
+
+    // Cells as raw encoded bytes in row-major order, as the binary channel sends them
+    public static Board read(ByteBuffer in) {
+        return read(in, SIZE, SIZE);
+    }
+
+    public static Board read(ByteBuffer in, int width, int height) {
+        Board board = new Board(width, height);
+        for (int i = 0; i < board.cells.length; i++) {
+            board.put(i, sanitize(in.get()));
+        }
+        return board;
+    }
+
+    public static byte encode(String cell) {
+        if (cell == null || cell.isEmpty()) {
+            return EMPTY;
+        }
+        return encode(cell.charAt(0), cell.length() > 1 ? cell.charAt(1) : 0);
+    }
+
+    // Same as encode(String) over a slice of a parser's buffer, so no String is built
+    public static byte encode(char[] chars, int offset, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        return encode(chars[offset], length > 1 ? chars[offset + 1] : 0);
+    }
+
+    private static byte encode(char first, char second) {
+        int type;
+        switch (first) {
+            case '_':
+                type = EMPTY;
+                break;
+            case 'A':
+                type = ASTEROID;
+                break;
+            case 'C':
+                type = COIN;
+                break;
+            case 'P':
+                type = PLAYER;
+                break;
+            case 'E':
+                type = ENEMY;
+                break;
+            default:
+                return OTHER;
+        }
+        if ((type == PLAYER || type == ENEMY) && second != 0) {
+            int heading = HEADINGS.indexOf(second);
+            if (heading >= 0) {
+                return withHeading(type, heading);
+            }
+        }
+        return (byte) type;
+    }
+
+    // Keeps a byte from the wire within the encoding: unknown types become OTHER
+    // and only ships keep a heading
+    private static byte sanitize(byte cell) {
+        int type = cell & TYPE_MASK;
+        if (type > OTHER) {
+            return OTHER;
+        }
+        if ((type == PLAYER || type == ENEMY) && hasHeading(cell)) {
+            return withHeading(type, heading(cell));
+        }
+        return (byte) type;
+    }
+
+    public static String decode(byte cell) {
+        int type = cell & TYPE_MASK;
+        switch (type) {
+            case ASTEROID:
+                return "A";
+            case COIN:
+                return "C";
+            case PLAYER:
+            case ENEMY:
+                String prefix = type == PLAYER ? "P" : "E";
+                return hasHeading(cell) ? prefix + HEADINGS.charAt(heading(cell)) : prefix;
+            default:
+                return "_";
+        }
+    }
+
+    public static byte withHeading(int type, int heading) {
+        return (byte) (type | HAS_HEADING | (heading << HEADING_SHIFT));
+    }
+
+    public static int type(byte cell) {
+        return cell & TYPE_MASK;
+    }
+
+    public static boolean hasHeading(byte cell) {
+        return (cell & HAS_HEADING) != 0;
+    }
+
+    public static int heading(byte cell) {
+        return hasHeading(cell) ? (cell >> HEADING_SHIFT) & 0x03 : NO_HEADING;
+    }
+
+    public static int dx(int heading) {
+        return DX[heading];
+    }
+
+    public static int dy(int heading) {
+        return DY[heading];
+    }
+
+    public static char headingChar(int heading) {
+        return HEADINGS.charAt(heading);
+    }
+
+    public static int headingOf(char c) {
+        return HEADINGS.indexOf(c);
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int cellCount() {
+        return cells.length;
+    }
+
+    public boolean sameShape(Board other) {
+        return width == other.width && height == other.height;
+    }
+
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    public int x(int index) {
+        return index % width;
+    }
+
+    public int y(int index) {
+        return index / width;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    // Index of the neighbouring cell in the given heading, or -1 off the board
+    public int step(int index, int heading) {
+        int x = index % width + DX[heading];
+        int y = index / width + DY[heading];
+        return x >= 0 && x < width && y >= 0 && y < height ? y * width + x : -1;
+    }
+
+    // Ring 0 is the outer edge; rings close from the outside in as the arena narrows
+    public int ring(int index) {
+        int x = index % width;
+        int y = index / width;
+        return Math.min(Math.min(x, y), Math.min(width - 1 - x, height - 1 - y));
+    }
+
+    public int rings() {
+        return (Math.min(width, height) + 1) / 2;
+    }
+
+    // Cells must be put once each, in row-major order
+    void put(int index, byte cell) {
+        cells[index] = cell;
+        int type = cell & TYPE_MASK;
+        if (type == PLAYER) {
+            if (player == -1 || index < player) {
+                player = index;
+            }
+        } else if (type == ENEMY) {
+            if (enemyCount == enemies.length) {
+                enemies = Arrays.copyOf(enemies, enemyCount * 2);
+            }
+            enemies[enemyCount++] = index;
+        } else if (type == COIN) {
+            if (coinCount == coins.length) {
+                coins = Arrays.copyOf(coins, coinCount * 2);
+            }
+            coins[coinCount++] = index;
+        }
+    }
+
+    public byte cell(int index) {
+        return cells[index];
+    }
+
+    public int type(int index) {
+        return cells[index] & TYPE_MASK;
+    }
+
+    public boolean is(int index, int type) {
+        return (cells[index] & TYPE_MASK) == type;
+    }
+
+    // Cells a ship can move onto: empty space and coins
+    public boolean isPassable(int index) {
+        int type = cells[index] & TYPE_MASK;
+        return type == EMPTY || type == COIN;
+    }
+
+    public boolean isPassable(int x, int y) {
+        return inBounds(x, y) && isPassable(index(x, y));
+    }
+
+    public int player() {
+        return player;
+    }
+
+    public int playerHeading() {
+        return player == -1 ? NO_HEADING : heading(cells[player]);
+    }
+
+    public int enemyCount() {
+        return enemyCount;
+    }
+
+    public int enemy(int i) {
+        return enemies[i];
+    }
+
+    public int coinCount() {
+        return coinCount;
+    }
+
+    public int coin(int i) {
+        return coins[i];
+    }
+
+    // True when the other board has the same shape and every cell matches
+    public boolean sameCells(Board other) {
+        return width == other.width && height == other.height && Arrays.equals(cells, other.cells);
+    }
+
+    // Writes the indices of cells that differ from the previous board, which
+    // must have the same shape, into changed and returns how many there are
+    public int diff(Board previous, int[] changed) {
+        int count = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != previous.cells[i]) {
+                changed[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    // Copy of this board with count cells replaced; indices must be ascending
+    public Board withChanges(int[] indices, byte[] changes, int count) {
+        Board board = new Board(width, height);
+        int next = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (next < count && indices[next] == i) {
+                board.put(i, sanitize(changes[next++]));
+            } else {
+                board.put(i, cells[i]);
+            }
+        }
+        if (next != count) {
+            throw new IllegalArgumentException("Changed cells must be distinct, ascending and on the board");
+        }
+        return board;
+    }
+
+    // CRC-32 of the encoded cells in row-major order, so a client can check
+    // that the board it patched matches ours
+    public long checksum() {
+        CRC32 crc = new CRC32();
+        crc.update(cells, 0, cells.length);
+        return crc.getValue();
+    }
+
+    public String[][] toField() {
+        String[][] field = new String[height][width];
+        for (int i = 0; i < cells.length; i++) {
+            field[y(i)][x(i)] = decode(cells[i]);
+        }
+        return field;
+    }
+}
@@ -0,0 +1,101 @@
+package com.team.name.bestrestservice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public final class BoardCorpus {
+
+    public enum Kind {
+        // Few asteroids, a couple of enemies
+        OPEN,
+        // A quarter of the board is asteroids
+        CLUTTERED,
+        // Many enemies around the ship
+        CROWDED,
+        // Outer rings already closed off by the arena narrowing
+        NARROWING
+    }
+
+    private static final String HEADINGS = "NESW";
+
+    private BoardCorpus() {
+    }
+
+    public static List<String[][]> boards(Kind kind, int count, long seed) {
+        return boards(kind, count, seed, Board.SIZE);
+    }
+
+    public static List<String[][]> boards(Kind kind, int count, long seed, int size) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String[][]> boards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boards.add(board(kind, random, size));
+        }
+        return boards;
+    }
+
+    public static String[][] board(Kind kind, SplittableRandom random) {
+        return board(kind, random, Board.SIZE);
+    }
+
+    // Square board of the given size; ship counts do not scale with it, so
+    // large boards are mostly empty space
+    public static String[][] board(Kind kind, SplittableRandom random, int size) {
+        double asteroids;
+        int enemies;
+        int closedRings = 0;
+        switch (kind) {
+            case CLUTTERED:
+                asteroids = 0.25;
+                enemies = 3;
+                break;
+            case CROWDED:
+                asteroids = 0.08;
+                enemies = 8 + random.nextInt(5);
+                break;
+            case NARROWING:
+                asteroids = 0.08;
+                enemies = 3;
+                closedRings = 1 + random.nextInt(3);
+                break;
+            default:
+                asteroids = 0.03;
+                enemies = 2 + random.nextInt(2);
+                break;
+        }
+
+        String[][] field = new String[size][size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int ring = Math.min(Math.min(x, y), Math.min(size - 1 - x, size - 1 - y));
+                if (ring < closedRings || random.nextDouble() < asteroids) {
+                    field[y][x] = "A";
+                } else if (random.nextDouble() < 0.05) {
+                    field[y][x] = "C";
+                } else {
+                    field[y][x] = "_";
+                }
+            }
+        }
+
+        place(field, "P", random);
+        for (int i = 0; i < enemies; i++) {
+            place(field, "E", random);
+        }
+        return field;
+    }
+
+    // Puts a ship with a random heading on a random open cell
+    private static void place(String[][] field, String ship, SplittableRandom random) {
+        int size = field.length;
+        for (int attempt = 0; attempt < size * size; attempt++) {
+            int x = random.nextInt(size);
+            int y = random.nextInt(size);
+            if ("_".equals(field[y][x]) || "C".equals(field[y][x])) {
+                field[y][x] = ship + HEADINGS.charAt(random.nextInt(4));
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.team.name.bestrestservice;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.util.Arrays;
+
+// Body of /move/delta: the cells that changed since the game's last board and
+// a checksum of the board they should produce
+@JsonDeserialize(using = BoardDeltaDeserializer.class)
+public class BoardDelta {
+
+    private final int gameId;
+    private final int narrowingIn;
+    private final int[] xs;
+    private final int[] ys;
+    private final byte[] cells;
+    private final int count;
+    private final Long checksum;
+
+    public BoardDelta(int gameId, int narrowingIn, int[] xs, int[] ys, byte[] cells, int count, Long checksum) {
+        this.gameId = gameId;
+        this.narrowingIn = narrowingIn;
+        this.xs = xs;
+        this.ys = ys;
+        this.cells = cells;
+        this.count = count;
+        this.checksum = checksum;
+    }
+
+    public int getGameId() {
+        return gameId;
+    }
+
+    public int getNarrowingIn() {
+        return narrowingIn;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Clients may list cells in any order; Board wants them ascending. Cells
+    // are only checked against the base board here, since its size is not
+    // known while the body is read. Each change is packed as index and cell
+    // in one long, so sorting them is a plain Arrays.sort.
+    public Board applyTo(Board base) {
+        if (count > base.cellCount()) {
+            throw new IllegalArgumentException("More changes than the board has cells");
+        }
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) {
+            if (!base.inBounds(xs[i], ys[i])) {
+                throw new IllegalArgumentException("Change at " + xs[i] + "," + ys[i] + " is off the board");
+            }
+            packed[i] = (long) base.index(xs[i], ys[i]) << 8 | (cells[i] & 0xFF);
+        }
+        Arrays.sort(packed);
+        int[] indices = new int[count];
+        byte[] sorted = new byte[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = (int) (packed[i] >>> 8);
+            sorted[i] = (byte) packed[i];
+        }
+        return base.withChanges(indices, sorted, count);
+    }
+
+    public boolean matches(Board board) {
+        return checksum != null && checksum == board.checksum();
+    }
+}
@@ -0,0 +1,120 @@
+package com.team.name.bestrestservice;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Reads {"gameId", "narrowingIn", "changes": [[x, y, "EN"], ...], "checksum"}
+// with the same token-level approach as GameStatusDeserializer
+public class BoardDeltaDeserializer extends StdDeserializer<BoardDelta> {
+
+    private static final long serialVersionUID = 1L;
+    private static final int MAX_CHANGES = Board.MAX_SIZE * Board.MAX_SIZE;
+
+    // Null when Jackson is used outside Spring, which then times nothing
+    private final transient DecisionMetrics metrics;
+
+    public BoardDeltaDeserializer() {
+        this(null);
+    }
+
+    // Spring's ObjectMapper builds deserializers through the bean factory
+    @Autowired
+    public BoardDeltaDeserializer(DecisionMetrics metrics) {
+        super(BoardDelta.class);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public BoardDelta deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartObjectToken()) {
+            return (BoardDelta) context.handleUnexpectedToken(BoardDelta.class, parser);
+        }
+        long started = System.nanoTime();
+        int gameId = 0;
+        int narrowingIn = 0;
+        Changes changes = new Changes();
+        Long checksum = null;
+
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "gameId":
+                    gameId = value == JsonToken.VALUE_NULL ? 0 : parser.getValueAsInt();
+                    break;
+                case "narrowingIn":
+                    narrowingIn = value == JsonToken.VALUE_NULL ? 0 : parser.getValueAsInt();
+                    break;
+                case "checksum":
+                    checksum = value == JsonToken.VALUE_NULL ? null : parser.getValueAsLong();
+                    break;
+                case "changes":
+                    readChanges(parser, context, changes);
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        BoardDelta delta = new BoardDelta(gameId, narrowingIn, changes.xs, changes.ys, changes.cells, changes.count, checksum);
+        if (metrics != null) {
+            metrics.record(DecisionMetrics.Phase.BIND, System.nanoTime() - started);
+        }
+        return delta;
+    }
+
+    private void readChanges(JsonParser parser, DeserializationContext context, Changes changes) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            context.handleUnexpectedToken(int[][].class, parser);
+        }
+        JsonToken change;
+        while ((change = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (change != JsonToken.START_ARRAY) {
+                context.reportInputMismatch(BoardDelta.class, "A change is [x, y, cell]");
+            }
+            parser.nextToken();
+            int x = parser.getValueAsInt(-1);
+            parser.nextToken();
+            int y = parser.getValueAsInt(-1);
+            if (parser.nextToken() != JsonToken.VALUE_STRING || x < 0 || y < 0 || x >= Board.MAX_SIZE || y >= Board.MAX_SIZE) {
+                context.reportInputMismatch(BoardDelta.class, "A change is [x, y, cell] with x and y on the board");
+            }
+            if (changes.count == MAX_CHANGES) {
+                context.reportInputMismatch(BoardDelta.class, "More changes than the board has cells");
+            }
+            changes.add(x, y, Board.encode(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+            if (parser.nextToken() != JsonToken.END_ARRAY) {
+                context.reportInputMismatch(BoardDelta.class, "A change is [x, y, cell]");
+            }
+        }
+    }
+
+    // Changes as read, grown as needed since the board's size is not known yet
+    private static final class Changes {
+        int[] xs = new int[16];
+        int[] ys = new int[16];
+        byte[] cells = new byte[16];
+        int count;
+
+        void add(int x, int y, byte cell) {
+            if (count == xs.length) {
+                xs = Arrays.copyOf(xs, count * 2);
+                ys = Arrays.copyOf(ys, count * 2);
+                cells = Arrays.copyOf(cells, count * 2);
+            }
+            xs[count] = x;
+            ys[count] = y;
+            cells[count++] = cell;
+        }
+    }
+}
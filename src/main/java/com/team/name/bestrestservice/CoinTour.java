@@ -0,0 +1,275 @@
+package com.team.name.bestrestservice;
+
+import java.util.Arrays;
+
+// Order in which to collect the visible coins: an open path from our ship
+// over rotation-aware distances between coins. Kept per game and repaired
+// when coins appear or disappear instead of being planned from scratch.
+public final class CoinTour {
+
+    public static final int MAX_COINS = 32;
+
+    // Stands in for an unreachable leg so such coins drift to the end
+    private static final int FAR = 1 << 16;
+    private static final int MAX_PASSES = 8;
+    private static final Scratch<DistanceField> SCRATCH = new Scratch<>(DistanceField::new);
+
+    // Coins live in slots so their matrix rows survive other coins coming and going
+    private final int[] cells = new int[MAX_COINS];
+    private final int[] distances = new int[MAX_COINS * MAX_COINS];
+    private final boolean[] seen = new boolean[MAX_COINS];
+    private final int[] order = new int[MAX_COINS];
+    private int size;
+    private DistanceField fromShip;
+    // The coins the tour may cover this tick, and their Manhattan distances
+    // from the ship while they are being picked
+    private final int[] candidates = new int[MAX_COINS];
+    private final int[] steps = new int[MAX_COINS];
+    private int candidateCount;
+
+    public CoinTour() {
+        Arrays.fill(cells, -1);
+    }
+
+    // Standalone tour for a single board, without history
+    public static CoinTour of(Board board, DistanceField fromShip) {
+        CoinTour tour = new CoinTour();
+        tour.update(board, fromShip, false);
+        return tour;
+    }
+
+    // Brings the tour up to date with the board. Matrix rows are only
+    // recomputed for new coins, or for all of them when asteroids moved.
+    public void update(Board board, DistanceField fromShip, boolean asteroidsChanged) {
+        this.fromShip = fromShip;
+        pickCandidates(board, fromShip.origin());
+        Arrays.fill(seen, false);
+        for (int i = 0; i < candidateCount; i++) {
+            int slot = slotOf(candidates[i]);
+            if (slot != -1) {
+                seen[slot] = true;
+            }
+        }
+
+        boolean changed = false;
+        int kept = 0;
+        for (int k = 0; k < size; k++) {
+            int slot = order[k];
+            if (seen[slot]) {
+                order[kept++] = slot;
+            } else {
+                cells[slot] = -1;
+                changed = true;
+            }
+        }
+        size = kept;
+
+        if (asteroidsChanged && size > 0) {
+            for (int k = 0; k < size; k++) {
+                computeRow(board, order[k]);
+            }
+            rebuild();
+            changed = true;
+        }
+
+        for (int i = 0; i < candidateCount; i++) {
+            int cell = candidates[i];
+            if (slotOf(cell) == -1) {
+                int slot = freeSlot();
+                cells[slot] = cell;
+                computeRow(board, slot);
+                insert(slot);
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            improve();
+        }
+    }
+
+    // Takes over another tour's coins and order; the distances from the ship
+    // are set again by the next update
+    void copyFrom(CoinTour other) {
+        System.arraycopy(other.cells, 0, cells, 0, MAX_COINS);
+        System.arraycopy(other.distances, 0, distances, 0, distances.length);
+        System.arraycopy(other.order, 0, order, 0, MAX_COINS);
+        size = other.size;
+        fromShip = null;
+    }
+
+    // First coin along the tour we can reach and that stays open margin ticks
+    // after we get there, or -1
+    public int next(SafeZone zone, int margin) {
+        for (int k = 0; k < size; k++) {
+            int cell = cells[order[k]];
+            int dist = fromShip.distance(cell);
+            if (dist != DistanceField.UNREACHABLE && (zone == null || zone.isSafe(cell, dist + margin))) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int coin(int k) {
+        return cells[order[k]];
+    }
+
+    // Ticks to walk the whole tour from where the ship stands
+    public int length() {
+        int length = 0;
+        int previous = -1;
+        for (int k = 0; k < size; k++) {
+            length += link(previous, order[k]);
+            previous = order[k];
+        }
+        return length;
+    }
+
+    private void computeRow(Board board, int slot) {
+        DistanceField field = SCRATCH.acquire();
+        try {
+            field.compute(board, cells[slot], Board.NO_HEADING);
+            // Legs are symmetric: any route can be driven backwards with the
+            // rotations mirrored, and neither end's heading is fixed
+            for (int other = 0; other < MAX_COINS; other++) {
+                if (cells[other] != -1) {
+                    int dist = field.distance(cells[other]);
+                    int leg = dist == DistanceField.UNREACHABLE ? FAR : dist;
+                    distances[slot * MAX_COINS + other] = leg;
+                    distances[other * MAX_COINS + slot] = leg;
+                }
+            }
+        } finally {
+            SCRATCH.release(field);
+        }
+    }
+
+    // All coins when they fit, otherwise the ones closest to the ship in
+    // steps, so a large board with many coins plans around where we are
+    private void pickCandidates(Board board, int ship) {
+        candidateCount = 0;
+        for (int i = 0; i < board.coinCount(); i++) {
+            int coin = board.coin(i);
+            if (board.coinCount() <= MAX_COINS || ship == -1) {
+                if (candidateCount == MAX_COINS) {
+                    return;
+                }
+                candidates[candidateCount++] = coin;
+                continue;
+            }
+            int distance = Math.abs(board.x(coin) - board.x(ship)) + Math.abs(board.y(coin) - board.y(ship));
+            if (candidateCount == MAX_COINS && distance >= steps[MAX_COINS - 1]) {
+                continue;
+            }
+            // Insertion into the list kept sorted by steps
+            int k = Math.min(candidateCount, MAX_COINS - 1);
+            while (k > 0 && steps[k - 1] > distance) {
+                candidates[k] = candidates[k - 1];
+                steps[k] = steps[k - 1];
+                k--;
+            }
+            candidates[k] = coin;
+            steps[k] = distance;
+            candidateCount = Math.min(candidateCount + 1, MAX_COINS);
+        }
+    }
+
+    private int slotOf(int cell) {
+        for (int slot = 0; slot < MAX_COINS; slot++) {
+            if (cells[slot] == cell) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int freeSlot() {
+        for (int slot = 0; slot < MAX_COINS; slot++) {
+            if (cells[slot] == -1) {
+                return slot;
+            }
+        }
+        throw new IllegalStateException("No free coin slot");
+    }
+
+    // Cost of going from a to b; -1 as a is the ship, -1 as b is the end of the tour
+    private int link(int a, int b) {
+        if (b == -1) {
+            return 0;
+        }
+        if (a == -1) {
+            int dist = fromShip.distance(cells[b]);
+            return dist == DistanceField.UNREACHABLE ? FAR : dist;
+        }
+        return distances[a * MAX_COINS + b];
+    }
+
+    // Cheapest insertion of a new coin into the current order
+    private void insert(int slot) {
+        int best = 0;
+        int bestCost = Integer.MAX_VALUE;
+        for (int k = 0; k <= size; k++) {
+            int prev = k == 0 ? -1 : order[k - 1];
+            int next = k == size ? -1 : order[k];
+            int cost = link(prev, slot) + link(slot, next) - link(prev, next);
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = k;
+            }
+        }
+        System.arraycopy(order, best, order, best + 1, size - best);
+        order[best] = slot;
+        size++;
+    }
+
+    // Greedy nearest neighbour from the ship
+    private void rebuild() {
+        for (int k = 0; k < size; k++) {
+            int prev = k == 0 ? -1 : order[k - 1];
+            int best = k;
+            for (int j = k + 1; j < size; j++) {
+                if (link(prev, order[j]) < link(prev, order[best])) {
+                    best = j;
+                }
+            }
+            int swap = order[k];
+            order[k] = order[best];
+            order[best] = swap;
+        }
+    }
+
+    // 2-opt on the open path: reverse order[i..j] while that shortens it
+    private void improve() {
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            boolean improved = false;
+            for (int i = 0; i < size - 1; i++) {
+                int prev = i == 0 ? -1 : order[i - 1];
+                for (int j = i + 1; j < size; j++) {
+                    int next = j == size - 1 ? -1 : order[j + 1];
+                    int delta = link(prev, order[j]) + link(order[i], next)
+                            - link(prev, order[i]) - link(order[j], next);
+                    if (delta < 0) {
+                        reverse(i, j);
+                        improved = true;
+                    }
+                }
+            }
+            if (!improved) {
+                return;
+            }
+        }
+    }
+
+    private void reverse(int i, int j) {
+        while (i < j) {
+            int swap = order[i];
+            order[i++] = order[j];
+            order[j--] = swap;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.team.name.bestrestservice;
+
+public interface DecisionEngine {
+
+    // Returns "M", "L", "R", "F" or null to skip the tick
+    String decideMove(SpaceshipAI.GameStatus gameStatus);
+}
@@ -0,0 +1,351 @@
+package com.team.name.bestrestservice;
+
+import java.util.Arrays;
+
+public final class DistanceField {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // States the flood may take off its queue before targets it has not
+    // reached are left to Pathfinder one at a time. Covers every state of a
+    // board up to 64x64, so on those nothing changes.
+    public static final int FLOOD_BUDGET = 64 * 64 * 4;
+
+    private static final int FAR_ROUTES = 64;
+    private static final Scratch<DistanceField> SCRATCH = new Scratch<>(DistanceField::new);
+
+    // Search runs over (cell, heading) states so that rotating costs a tick
+    // just like moving does. Per-cell results are the cheapest heading. The
+    // flood only runs as far as the questions asked of it need.
+    private int[] queue = new int[Board.CELLS * 4];
+    private int[] stateStamp = new int[Board.CELLS * 4];
+    private int[] stateDist = new int[Board.CELLS * 4];
+    private byte[] stateFirst = new byte[Board.CELLS * 4];
+    private int[] cellStamp = new int[Board.CELLS];
+    private int[] cellDist = new int[Board.CELLS];
+    private byte[] cellFirst = new byte[Board.CELLS];
+    // Cells in the order the flood reached them, which is by distance
+    private int[] reached = new int[Board.CELLS];
+    private int reachedCount;
+    private int head;
+    private int tail;
+    private int generation;
+    private Board board;
+    private int origin = -1;
+    private int heading;
+
+    // Pathfinder results for targets past the flood, by cell and heading
+    private final int[] farTargets = new int[FAR_ROUTES];
+    private final int[] farRoutes = new int[FAR_ROUTES];
+    private int farCount;
+
+    // The thread's field for this board, flooded on first use. On a virtual
+    // thread it is not handed back; requests get theirs from their session.
+    public static DistanceField of(Board board) {
+        DistanceField field = SCRATCH.acquire();
+        if (field.board != board) {
+            field.compute(board);
+        }
+        return field;
+    }
+
+    public DistanceField compute(Board board) {
+        return compute(board, board.player(), board.playerHeading());
+    }
+
+    // Flood from any cell; with NO_HEADING the start may face any way for free
+    public DistanceField compute(Board board, int origin, int heading) {
+        if (cellStamp.length < board.cellCount()) {
+            grow(board.cellCount());
+        }
+        this.board = board;
+        this.origin = origin;
+        this.heading = heading;
+        int gen = nextGeneration();
+        head = 0;
+        tail = 0;
+        reachedCount = 0;
+        farCount = 0;
+        if (origin == -1) {
+            return this;
+        }
+
+        for (int h = 0; h < 4; h++) {
+            if (heading == Board.NO_HEADING || heading == h) {
+                int state = origin << 2 | h;
+                stateStamp[state] = gen;
+                stateDist[state] = 0;
+                stateFirst[state] = Moves.SKIP;
+                queue[tail++] = state;
+            }
+        }
+        cellStamp[origin] = gen;
+        cellDist[origin] = 0;
+        cellFirst[origin] = Moves.SKIP;
+        reached[reachedCount++] = origin;
+        return this;
+    }
+
+    // Keeps the current results for a board that differs from the flooded one
+    // only in ways that cannot change a route
+    public DistanceField rebind(Board board) {
+        this.board = board;
+        return this;
+    }
+
+    private boolean expand(boolean bounded) {
+        if (head == tail || (bounded && head >= FLOOD_BUDGET)) {
+            return false;
+        }
+        int gen = generation;
+        int state = queue[head++];
+        int cell = state >> 2;
+        int h = state & 3;
+        int dist = stateDist[state] + 1;
+        int first = stateFirst[state];
+
+        int ahead = board.step(cell, h);
+        if (ahead != -1 && board.isPassable(ahead)) {
+            visit(ahead << 2 | h, dist, first == Moves.SKIP ? Moves.MOVE : first, gen);
+        }
+        visit(cell << 2 | Moves.turn(h, Moves.LEFT), dist, first == Moves.SKIP ? Moves.LEFT : first, gen);
+        visit(cell << 2 | Moves.turn(h, Moves.RIGHT), dist, first == Moves.SKIP ? Moves.RIGHT : first, gen);
+        return true;
+    }
+
+    private void visit(int state, int dist, int first, int gen) {
+        if (stateStamp[state] == gen) {
+            return;
+        }
+        stateStamp[state] = gen;
+        stateDist[state] = dist;
+        stateFirst[state] = (byte) first;
+        queue[tail++] = state;
+
+        // States leave the queue in distance order, so the first heading to
+        // reach a cell is the cheapest way there
+        int cell = state >> 2;
+        if (cellStamp[cell] != gen) {
+            cellStamp[cell] = gen;
+            cellDist[cell] = dist;
+            cellFirst[cell] = (byte) first;
+            reached[reachedCount++] = cell;
+        }
+    }
+
+    public Board board() {
+        return board;
+    }
+
+    public int origin() {
+        return origin;
+    }
+
+    public boolean reachable(int cell) {
+        return distance(cell) != UNREACHABLE;
+    }
+
+    // Ticks needed to stand on the cell, counting moves and rotations
+    public int distance(int cell) {
+        int route = route(cell, Board.NO_HEADING);
+        return route == Pathfinder.NO_PATH ? UNREACHABLE : Pathfinder.distance(route);
+    }
+
+    // Ticks needed to stand on the cell facing the given heading
+    public int distance(int cell, int heading) {
+        int route = route(cell, heading);
+        return route == Pathfinder.NO_PATH ? UNREACHABLE : Pathfinder.distance(route);
+    }
+
+    // First move of a cheapest route to the cell, SKIP when already there,
+    // NONE when it cannot be reached
+    public int firstMove(int cell) {
+        int route = route(cell, Board.NO_HEADING);
+        return route == Pathfinder.NO_PATH ? Moves.NONE : Pathfinder.firstMove(route);
+    }
+
+    public int firstMove(int cell, int heading) {
+        int route = route(cell, heading);
+        return route == Pathfinder.NO_PATH ? Moves.NONE : Pathfinder.firstMove(route);
+    }
+
+    // Distance and first move to the cell, from the flood while it is within
+    // budget and from Pathfinder past it
+    private int route(int cell, int heading) {
+        int gen = generation;
+        // Only the origin is ever stood on without being passable
+        boolean open = origin != -1 && (cell == origin || board.isPassable(cell));
+        if (heading == Board.NO_HEADING) {
+            while (open && cellStamp[cell] != gen && expand(true)) {
+                // flood on
+            }
+            if (!open || cellStamp[cell] == gen || head == tail) {
+                return found(cell);
+            }
+        } else {
+            int state = cell << 2 | heading;
+            while (open && stateStamp[state] != gen && expand(true)) {
+                // flood on
+            }
+            if (!open || stateStamp[state] == gen || head == tail) {
+                return foundState(state);
+            }
+        }
+        return far(cell, heading);
+    }
+
+    private int found(int cell) {
+        return cellStamp[cell] == generation ? cellDist[cell] << 3 | cellFirst[cell] : Pathfinder.NO_PATH;
+    }
+
+    private int foundState(int state) {
+        return stateStamp[state] == generation ? stateDist[state] << 3 | stateFirst[state] : Pathfinder.NO_PATH;
+    }
+
+    private int far(int cell, int heading) {
+        int key = cell << 3 | (heading + 1);
+        for (int i = 0; i < farCount; i++) {
+            if (farTargets[i] == key) {
+                return farRoutes[i];
+            }
+        }
+        Pathfinder pathfinder = Pathfinder.acquire();
+        int route;
+        try {
+            route = pathfinder.find(board, origin, this.heading, cell, heading);
+        } finally {
+            Pathfinder.release(pathfinder);
+        }
+        if (farCount < FAR_ROUTES) {
+            farTargets[farCount] = key;
+            farRoutes[farCount++] = route;
+        }
+        return route;
+    }
+
+    // A distance the cell cannot beat: what the flood found, or past the
+    // flood's frontier and at least the straight-line steps
+    private int lowerBound(int cell) {
+        if (cellStamp[cell] == generation) {
+            return cellDist[cell];
+        }
+        int steps = Math.abs(board.x(cell) - board.x(origin)) + Math.abs(board.y(cell) - board.y(origin));
+        return head < tail ? Math.max(steps, stateDist[queue[head]] + 1) : steps;
+    }
+
+    // Closest reachable coin, or -1
+    public int nearestCoin() {
+        return nearestCoin(null, 0);
+    }
+
+    // Closest reachable coin that is still open margin ticks after we get there
+    public int nearestCoin(SafeZone zone, int margin) {
+        if (origin == -1 || board.coinCount() == 0) {
+            return -1;
+        }
+        int best = nearestReached(true, zone, margin, true);
+        if (best != -1 || head == tail) {
+            return best;
+        }
+        // Nothing within the flood's budget; try the rest closest first
+        int bestDist = UNREACHABLE;
+        for (int i = 0; i < board.coinCount(); i++) {
+            int coin = board.coin(i);
+            if (lowerBound(coin) >= bestDist) {
+                continue;
+            }
+            int dist = distance(coin);
+            if (dist < bestDist && safe(zone, coin, dist, margin)) {
+                bestDist = dist;
+                best = coin;
+            }
+        }
+        return best;
+    }
+
+    // Closest reachable cell within a Manhattan radius of (x, y), or -1
+    public int nearestWithin(int x, int y, int radius) {
+        return nearestWithin(x, y, radius, null, 0);
+    }
+
+    public int nearestWithin(int x, int y, int radius, SafeZone zone, int margin) {
+        if (origin == -1) {
+            return -1;
+        }
+        int best = -1;
+        int bestDist = UNREACHABLE;
+        for (int cy = Math.max(0, y - radius); cy <= Math.min(board.height() - 1, y + radius); cy++) {
+            int span = radius - Math.abs(cy - y);
+            for (int cx = Math.max(0, x - span); cx <= Math.min(board.width() - 1, x + span); cx++) {
+                int cell = board.index(cx, cy);
+                if (lowerBound(cell) >= bestDist) {
+                    continue;
+                }
+                int dist = distance(cell);
+                if (dist < bestDist && safe(zone, cell, dist, margin)) {
+                    bestDist = dist;
+                    best = cell;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Closest reachable cell that is still open margin ticks after we get there,
+    // or -1 when every reachable cell closes too soon. Only asked for when a
+    // target cannot be reached, so the flood may run past its budget.
+    public int nearestSafe(SafeZone zone, int margin) {
+        if (origin == -1) {
+            return -1;
+        }
+        return nearestReached(false, zone, margin, false);
+    }
+
+    // Walks cells in the order the flood reaches them and returns the lowest
+    // indexed match at the smallest distance, or -1 once the flood runs out
+    private int nearestReached(boolean coins, SafeZone zone, int margin, boolean bounded) {
+        int best = -1;
+        int bestDist = UNREACHABLE;
+        for (int i = 0; ; i++) {
+            while (i >= reachedCount) {
+                if (!expand(bounded)) {
+                    return best;
+                }
+            }
+            int cell = reached[i];
+            int dist = cellDist[cell];
+            if (dist > bestDist) {
+                return best;
+            }
+            if ((!coins || board.is(cell, Board.COIN)) && safe(zone, cell, dist, margin) && (best == -1 || cell < best)) {
+                best = cell;
+                bestDist = dist;
+            }
+        }
+    }
+
+    private static boolean safe(SafeZone zone, int cell, int dist, int margin) {
+        return zone == null || zone.isSafe(cell, dist + margin);
+    }
+
+    private void grow(int cells) {
+        queue = new int[cells * 4];
+        stateStamp = new int[cells * 4];
+        stateDist = new int[cells * 4];
+        stateFirst = new byte[cells * 4];
+        cellStamp = new int[cells];
+        cellDist = new int[cells];
+        cellFirst = new byte[cells];
+        reached = new int[cells];
+        generation = 0;
+    }
+
+    private int nextGeneration() {
+        if (++generation == 0) {
+            Arrays.fill(stateStamp, 0);
+            Arrays.fill(cellStamp, 0);
+            generation = 1;
+        }
+        return generation;
+    }
+}
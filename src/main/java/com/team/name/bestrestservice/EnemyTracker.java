@@ -0,0 +1,247 @@
+package com.team.name.bestrestservice;
+
+import java.util.Arrays;
+
+public class EnemyTracker {
+
+    // What an enemy did between two ticks; HOLD covers both firing and skipping
+    public static final int MOVE = 0;
+    public static final int LEFT = 1;
+    public static final int RIGHT = 2;
+    public static final int HOLD = 3;
+
+    // Pseudo-counts so a fresh track still predicts something sensible
+    private static final float[] PRIOR = {2f, 1f, 1f, 1f};
+    private static final float PRIOR_TOTAL = 5f;
+    private static final int RANGE = 4;
+
+    // Tracks live in two buffers that swap every tick, sized for the most
+    // enemies seen so far
+    private int[] cells = new int[16];
+    private int[] headings = new int[16];
+    private int[] counts = new int[16 * 4];
+    private int[] nextCells = new int[16];
+    private int[] nextHeadings = new int[16];
+    private int[] nextCounts = new int[16 * 4];
+    private int count;
+
+    // Cell -> track lookup for the previous tick, valid where the stamp matches
+    private int[] trackAt = new int[Board.CELLS];
+    private int[] trackStamp = new int[Board.CELLS];
+    private int[] claimed = new int[Board.CELLS];
+    private int generation;
+
+    // Probability that some enemy stands on a cell after its next action
+    private float[] occupancy = new float[Board.CELLS];
+    private Board board;
+
+    public void update(Board board) {
+        if (this.board != null && !this.board.sameShape(board)) {
+            // Another arena: no track carries over and no cell keeps its odds
+            count = 0;
+            this.board = null;
+            occupancy = new float[board.cellCount()];
+        }
+        if (trackAt.length < board.cellCount()) {
+            trackAt = new int[board.cellCount()];
+            trackStamp = new int[board.cellCount()];
+            claimed = new int[board.cellCount()];
+            occupancy = Arrays.copyOf(occupancy, board.cellCount());
+            generation = 0;
+        }
+        if (nextCells.length < board.enemyCount()) {
+            int tracks = Math.max(board.enemyCount(), nextCells.length * 2);
+            cells = Arrays.copyOf(cells, tracks);
+            headings = Arrays.copyOf(headings, tracks);
+            counts = Arrays.copyOf(counts, tracks * 4);
+            nextCells = new int[tracks];
+            nextHeadings = new int[tracks];
+            nextCounts = new int[tracks * 4];
+        }
+        int gen = ++generation;
+        for (int t = 0; t < count; t++) {
+            trackAt[cells[t]] = t;
+            trackStamp[cells[t]] = gen;
+        }
+
+        int next = 0;
+        for (int i = 0; i < board.enemyCount(); i++) {
+            int cell = board.enemy(i);
+            int heading = Board.heading(board.cell(cell));
+            int base = next * 4;
+            nextCells[next] = cell;
+            nextHeadings[next] = heading;
+            nextCounts[base] = nextCounts[base + 1] = nextCounts[base + 2] = nextCounts[base + 3] = 0;
+
+            int track = claim(cell, gen);
+            int action = -1;
+            if (track != -1) {
+                int was = headings[track];
+                if (was == heading) {
+                    action = HOLD;
+                } else if (was != Board.NO_HEADING && heading == Moves.turn(was, Moves.LEFT)) {
+                    action = LEFT;
+                } else if (was != Board.NO_HEADING && heading == Moves.turn(was, Moves.RIGHT)) {
+                    action = RIGHT;
+                }
+            } else if (heading != Board.NO_HEADING) {
+                // A ship that moved forward came from the cell behind it, facing the same way
+                int behind = board.step(cell, (heading + 2) & 3);
+                if (behind != -1) {
+                    track = claim(behind, gen);
+                    if (track != -1 && headings[track] == heading) {
+                        action = MOVE;
+                    }
+                }
+            }
+            if (track != -1) {
+                System.arraycopy(counts, track * 4, nextCounts, base, 4);
+                if (action != -1) {
+                    nextCounts[base + action]++;
+                }
+            }
+            next++;
+        }
+
+        swap();
+        count = next;
+        rebuildOccupancy(board);
+    }
+
+    // Takes over another tracker's tracks and odds; scratch space is not shared
+    void copyFrom(EnemyTracker other) {
+        cells = other.cells.clone();
+        headings = other.headings.clone();
+        counts = other.counts.clone();
+        nextCells = new int[other.nextCells.length];
+        nextHeadings = new int[other.nextHeadings.length];
+        nextCounts = new int[other.nextCounts.length];
+        count = other.count;
+        trackAt = new int[other.trackAt.length];
+        trackStamp = new int[other.trackStamp.length];
+        claimed = new int[other.claimed.length];
+        generation = 0;
+        occupancy = other.occupancy.clone();
+        board = other.board;
+    }
+
+    private int claim(int cell, int gen) {
+        if (trackStamp[cell] != gen || claimed[cell] == gen) {
+            return -1;
+        }
+        claimed[cell] = gen;
+        return trackAt[cell];
+    }
+
+    private void swap() {
+        int[] c = cells;
+        cells = nextCells;
+        nextCells = c;
+        int[] h = headings;
+        headings = nextHeadings;
+        nextHeadings = h;
+        int[] n = counts;
+        counts = nextCounts;
+        nextCounts = n;
+    }
+
+    private void rebuildOccupancy(Board board) {
+        if (this.board != null) {
+            for (int i = 0; i < this.board.enemyCount(); i++) {
+                int cell = this.board.enemy(i);
+                occupancy[cell] = 0f;
+                for (int h = 0; h < 4; h++) {
+                    int ahead = this.board.step(cell, h);
+                    if (ahead != -1) {
+                        occupancy[ahead] = 0f;
+                    }
+                }
+            }
+        }
+        this.board = board;
+        for (int t = 0; t < count; t++) {
+            int ahead = ahead(t);
+            float move = ahead == -1 ? 0f : probability(t, MOVE);
+            occupancy[cells[t]] += 1f - move;
+            if (ahead != -1) {
+                occupancy[ahead] += move;
+            }
+        }
+    }
+
+    // Cell the enemy would reach by moving forward, or -1 if it cannot
+    private int ahead(int track) {
+        int heading = headings[track];
+        if (heading == Board.NO_HEADING) {
+            return -1;
+        }
+        int ahead = board.step(cells[track], heading);
+        return ahead != -1 && board.isPassable(ahead) ? ahead : -1;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int cell(int track) {
+        return cells[track];
+    }
+
+    public int heading(int track) {
+        return headings[track];
+    }
+
+    public int observations(int track) {
+        int base = track * 4;
+        return counts[base] + counts[base + 1] + counts[base + 2] + counts[base + 3];
+    }
+
+    public float probability(int track, int action) {
+        return (counts[track * 4 + action] + PRIOR[action]) / (observations(track) + PRIOR_TOTAL);
+    }
+
+    public float occupancy(int cell) {
+        return occupancy[cell];
+    }
+
+    // Expected number of enemies a shot fired from cell along heading would hit,
+    // given where the enemies are likely to be after their next action
+    public float expectedHits(int cell, int heading) {
+        float hits = 0f;
+        int current = cell;
+        for (int i = 1; i <= RANGE; i++) {
+            current = board.step(current, heading);
+            if (current == -1 || board.is(current, Board.ASTEROID)) {
+                break;
+            }
+            hits += occupancy[current];
+        }
+        return hits;
+    }
+
+    // Chance that some enemy already lined up on the cell holds its heading and fires
+    public float threat(int cell) {
+        float safe = 1f;
+        for (int t = 0; t < count; t++) {
+            int heading = headings[t];
+            if (heading != Board.NO_HEADING && inLine(cells[t], heading, cell)) {
+                safe *= 1f - probability(t, HOLD);
+            }
+        }
+        return 1f - safe;
+    }
+
+    private boolean inLine(int from, int heading, int target) {
+        int current = from;
+        for (int i = 1; i <= RANGE; i++) {
+            current = board.step(current, heading);
+            if (current == -1 || board.is(current, Board.ASTEROID)) {
+                return false;
+            }
+            if (current == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
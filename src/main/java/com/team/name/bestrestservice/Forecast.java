@@ -0,0 +1,191 @@
+package com.team.name.bestrestservice;
+
+// Boards the next tick is likely to bring: our move applied and every enemy
+// taking one of its likelier actions as the tracker sees them. Coins that
+// appear and enemy shots are not foreseen. Moves resolve as they do in the
+// arena: a shot is traced from where the ships stood, and a move fails when
+// its target is blocked, held by a ship or wanted by another ship.
+public final class Forecast {
+
+    private static final int ACTIONS = 4;
+
+    private Forecast() {
+    }
+
+    // Fills out with up to out.length distinct boards, likeliest first: every
+    // enemy taking its likeliest action, then one enemy at a time taking
+    // another. Returns how many there are.
+    public static int next(Board board, EnemyTracker tracker, int move, Board[] out) {
+        int enemies = board.enemyCount();
+        if (board.player() == -1 || board.playerHeading() == Board.NO_HEADING || tracker.count() != enemies) {
+            return 0;
+        }
+        int[] ranked = new int[enemies * ACTIONS];
+        float[] odds = new float[enemies * ACTIONS];
+        for (int e = 0; e < enemies; e++) {
+            if (tracker.cell(e) != board.enemy(e)) {
+                return 0;
+            }
+            rank(tracker, e, ranked, odds);
+        }
+
+        // Single changes from the likeliest actions, by how much less likely they are
+        int[] changes = new int[enemies * (ACTIONS - 1)];
+        float[] ratios = new float[changes.length];
+        int changeCount = 0;
+        for (int e = 0; e < enemies; e++) {
+            for (int r = 1; r < ACTIONS; r++) {
+                float ratio = odds[e * ACTIONS + r] / odds[e * ACTIONS];
+                if (ratio <= 0f) {
+                    continue;
+                }
+                int k = changeCount++;
+                while (k > 0 && ratios[k - 1] < ratio) {
+                    changes[k] = changes[k - 1];
+                    ratios[k] = ratios[k - 1];
+                    k--;
+                }
+                changes[k] = e * ACTIONS + r;
+                ratios[k] = ratio;
+            }
+        }
+
+        int[] actions = new int[enemies];
+        int count = 0;
+        for (int c = -1; c < changeCount && count < out.length; c++) {
+            for (int e = 0; e < enemies; e++) {
+                actions[e] = ranked[e * ACTIONS];
+            }
+            if (c >= 0) {
+                actions[changes[c] / ACTIONS] = ranked[changes[c]];
+            }
+            Board next = apply(board, move, actions);
+            boolean seen = false;
+            for (int i = 0; i < count && !seen; i++) {
+                seen = out[i].sameCells(next);
+            }
+            if (!seen) {
+                out[count++] = next;
+            }
+        }
+        return count;
+    }
+
+    // The enemy's actions, likeliest first; one without a heading only holds
+    private static void rank(EnemyTracker tracker, int enemy, int[] ranked, float[] odds) {
+        int base = enemy * ACTIONS;
+        boolean heading = tracker.heading(enemy) != Board.NO_HEADING;
+        for (int action = 0; action < ACTIONS; action++) {
+            float p = heading ? tracker.probability(enemy, action) : action == EnemyTracker.HOLD ? 1f : 0f;
+            int k = base + action;
+            while (k > base && odds[k - 1] < p) {
+                ranked[k] = ranked[k - 1];
+                odds[k] = odds[k - 1];
+                k--;
+            }
+            ranked[k] = action;
+            odds[k] = p;
+        }
+    }
+
+    // Our ship is ship 0 and takes a Moves code; enemy i is ship i + 1 and
+    // takes an EnemyTracker action
+    private static Board apply(Board board, int move, int[] actions) {
+        int ships = actions.length + 1;
+        int[] cells = new int[ships];
+        int[] headings = new int[ships];
+        int[] targets = new int[ships];
+        cells[0] = board.player();
+        headings[0] = board.playerHeading();
+        for (int e = 0; e < actions.length; e++) {
+            cells[e + 1] = board.enemy(e);
+            headings[e + 1] = Board.heading(board.cell(board.enemy(e)));
+        }
+
+        int victim = move == Moves.FIRE ? trace(board, cells, cells[0], headings[0]) : -1;
+
+        for (int ship = 0; ship < ships; ship++) {
+            targets[ship] = -1;
+            int turn;
+            boolean forward;
+            if (ship == 0) {
+                turn = move == Moves.LEFT || move == Moves.RIGHT ? move : Moves.NONE;
+                forward = move == Moves.MOVE;
+            } else {
+                int action = actions[ship - 1];
+                turn = action == EnemyTracker.LEFT ? Moves.LEFT : action == EnemyTracker.RIGHT ? Moves.RIGHT : Moves.NONE;
+                forward = action == EnemyTracker.MOVE;
+            }
+            if (headings[ship] == Board.NO_HEADING) {
+                continue;
+            }
+            if (turn != Moves.NONE) {
+                headings[ship] = Moves.turn(headings[ship], turn);
+            } else if (forward) {
+                int ahead = board.step(cells[ship], headings[ship]);
+                if (ahead != -1 && board.isPassable(ahead)) {
+                    targets[ship] = ahead;
+                }
+            }
+        }
+
+        // Every ship changes at most the cell it leaves and the one it stands on
+        int[] indices = new int[ships * 2];
+        byte[] changes = new byte[ships * 2];
+        int count = 0;
+        for (int ship = 0; ship < ships; ship++) {
+            int from = cells[ship];
+            int to = targets[ship] != -1 && !contested(targets, ship) ? targets[ship] : from;
+            int type = ship == 0 ? Board.PLAYER : Board.ENEMY;
+            if (to != from) {
+                count = put(indices, changes, count, from, Board.EMPTY);
+            }
+            if (ship == victim) {
+                // A ship shot down leaves behind whatever it stood on
+                count = put(indices, changes, count, to, to == from ? Board.EMPTY : board.cell(to));
+            } else if (headings[ship] != Board.NO_HEADING) {
+                count = put(indices, changes, count, to, Board.withHeading(type, headings[ship]));
+            }
+        }
+        return board.withChanges(indices, changes, count);
+    }
+
+    // First ship a shot from cell along heading runs into, or -1
+    private static int trace(Board board, int[] cells, int cell, int heading) {
+        int current = cell;
+        for (int i = 1; i <= ThreatMap.RANGE; i++) {
+            current = board.step(current, heading);
+            if (current == -1 || board.is(current, Board.ASTEROID)) {
+                return -1;
+            }
+            for (int ship = 0; ship < cells.length; ship++) {
+                if (cells[ship] == current) {
+                    return ship;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean contested(int[] targets, int ship) {
+        for (int other = 0; other < targets.length; other++) {
+            if (other != ship && targets[other] == targets[ship]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Keeps changes sorted by cell, as Board.withChanges wants them
+    private static int put(int[] indices, byte[] changes, int count, int cell, byte value) {
+        int k = count;
+        while (k > 0 && indices[k - 1] > cell) {
+            indices[k] = indices[k - 1];
+            changes[k] = changes[k - 1];
+            k--;
+        }
+        indices[k] = cell;
+        changes[k] = value;
+        return count + 1;
+    }
+}
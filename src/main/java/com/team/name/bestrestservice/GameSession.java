@@ -0,0 +1,198 @@
+package com.team.name.bestrestservice;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class GameSession {
+
+    private final int gameId;
+    private volatile long lastAccess;
+    // Set by the cache, with the lock held, once the session is dropped
+    private volatile boolean evicted;
+    // Cells of the largest board seen, which the per-cell state is sized to,
+    // added to the cache's total as it grows
+    private final AtomicLong totalCells;
+    private int cells;
+
+    // Serializes ticks of one game; a lock rather than a monitor so waiting
+    // virtual threads unmount instead of pinning their carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Board previous;
+    private Board current;
+    private int[] changed = new int[Board.CELLS];
+    private int changedCount;
+    private int ticks;
+
+    private final DistanceField distances = new DistanceField();
+    private final EnemyTracker enemies = new EnemyTracker();
+    private final SafeZone zone = new SafeZone();
+    private final CoinTour tour = new CoinTour();
+    private Board tourBoard;
+    private final Speculation speculation = new Speculation();
+
+    public GameSession(int gameId) {
+        this(gameId, null);
+    }
+
+    GameSession(int gameId, AtomicLong totalCells) {
+        this.gameId = gameId;
+        this.totalCells = totalCells;
+    }
+
+    public int getGameId() {
+        return gameId;
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    public ReentrantLock lock() {
+        return lock;
+    }
+
+    void touch(long now) {
+        this.lastAccess = now;
+    }
+
+    boolean isEvicted() {
+        return evicted;
+    }
+
+    void evict() {
+        this.evicted = true;
+    }
+
+    int cells() {
+        return cells;
+    }
+
+    public void advance(Board board, int narrowingIn) {
+        advance(board);
+        zone.update(board, narrowingIn);
+    }
+
+    // Moves the session to the next tick and records which cells changed
+    public void advance(Board board) {
+        previous = current;
+        current = board;
+        ticks++;
+        if (cells < board.cellCount()) {
+            if (totalCells != null) {
+                totalCells.addAndGet(board.cellCount() - cells);
+            }
+            cells = board.cellCount();
+        }
+        if (changed.length < board.cellCount()) {
+            changed = new int[board.cellCount()];
+        }
+        if (previous == null || !previous.sameShape(board)) {
+            changedCount = board.cellCount();
+            for (int i = 0; i < changedCount; i++) {
+                changed[i] = i;
+            }
+        } else {
+            changedCount = board.diff(previous, changed);
+        }
+        enemies.update(board);
+    }
+
+    // Copy of the game as of its last tick, to decide boards it may never
+    // see; nothing it changes is shared with this session
+    public GameSession fork() {
+        GameSession fork = new GameSession(gameId);
+        fork.previous = previous;
+        fork.current = current;
+        fork.changed = changed.clone();
+        fork.changedCount = changedCount;
+        fork.ticks = ticks;
+        fork.enemies.copyFrom(enemies);
+        fork.zone.copyFrom(zone);
+        fork.tour.copyFrom(tour);
+        fork.tourBoard = tourBoard;
+        return fork;
+    }
+
+    public Speculation speculation() {
+        return speculation;
+    }
+
+    public Board current() {
+        return current;
+    }
+
+    public Board previous() {
+        return previous;
+    }
+
+    public EnemyTracker enemies() {
+        return enemies;
+    }
+
+    public SafeZone zone() {
+        return zone;
+    }
+
+    public int ticks() {
+        return ticks;
+    }
+
+    public int changedCount() {
+        return changedCount;
+    }
+
+    public int changed(int i) {
+        return changed[i];
+    }
+
+    // Distances from our ship on the current board; the last flood is reused
+    // when nothing that affects a route changed since the previous tick
+    public DistanceField distances(Board board) {
+        if (distances.board() == board) {
+            return distances;
+        }
+        if (distances.board() == previous && previous != null && board == current && routesUnchanged()) {
+            return distances.rebind(board);
+        }
+        return distances.compute(board);
+    }
+
+    // The coin tour for the current board, repaired at most once per tick
+    public CoinTour tour(Board board) {
+        if (tourBoard != board) {
+            tour.update(board, distances(board), tourBoard != null && asteroidsChanged(tourBoard, board));
+            tourBoard = board;
+        }
+        return tour;
+    }
+
+    // Compares whole boards, as the tour may have skipped some ticks
+    private static boolean asteroidsChanged(Board from, Board to) {
+        if (!from.sameShape(to)) {
+            return true;
+        }
+        for (int cell = 0; cell < to.cellCount(); cell++) {
+            if (from.is(cell, Board.ASTEROID) != to.is(cell, Board.ASTEROID)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean routesUnchanged() {
+        if (!current.sameShape(previous) || current.player() != previous.player()) {
+            return false;
+        }
+        for (int i = 0; i < changedCount; i++) {
+            int cell = changed[i];
+            if (cell == current.player()) {
+                return false;
+            }
+            if (current.isPassable(cell) != previous.isPassable(cell)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,121 @@
+package com.team.name.bestrestservice;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sessions by game id. Requests never wait on the cache as a whole: eviction
+// runs on a sweeper thread, which only drops a session it can lock with no
+// tick waiting on it, so a game in play never loses its state. Besides the
+// number of games, the cache is bounded by the board cells its sessions hold
+// state for: each keeps distance, tracker and change arrays per cell, about
+// 85 bytes a cell, so one 512x512 game weighs as much as 1500 13x13 ones.
+@Component
+public class GameSessionCache {
+
+    private final int maxGames;
+    private final long maxCells;
+    private final long idleTtlNanos;
+    private final ConcurrentHashMap<Integer, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong totalCells = new AtomicLong();
+    private final ScheduledExecutorService sweeper;
+    private final AtomicBoolean sweepQueued = new AtomicBoolean();
+
+    public GameSessionCache(@Value("${sessions.max-games:1024}") int maxGames,
+                            @Value("${sessions.idle-ttl-seconds:300}") long idleTtlSeconds,
+                            @Value("${sessions.sweep-seconds:5}") long sweepSeconds,
+                            @Value("${sessions.max-cells:2097152}") long maxCells) {
+        this.maxGames = maxGames;
+        this.maxCells = maxCells;
+        this.idleTtlNanos = TimeUnit.SECONDS.toNanos(idleTtlSeconds);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, sweepSeconds);
+        sweeper.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.SECONDS);
+    }
+
+    // Returns the game's session with its lock held; the caller unlocks it.
+    // A session the sweeper dropped while this thread waited for it is
+    // never handed out; the game gets the one that replaced it. A session
+    // grows once its caller advances it, so the next lock sees the weight.
+    public GameSession lock(int gameId) {
+        while (true) {
+            GameSession session = sessions.computeIfAbsent(gameId, id -> new GameSession(id, totalCells));
+            session.lock().lock();
+            if (!session.isEvicted()) {
+                session.touch(System.nanoTime());
+                if ((sessions.size() > maxGames || totalCells.get() > maxCells) && sweepQueued.compareAndSet(false, true)) {
+                    sweeper.execute(this::sweep);
+                }
+                return session;
+            }
+            session.lock().unlock();
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public long cells() {
+        return totalCells.get();
+    }
+
+    // Drops sessions idle past the TTL, then the least recently used ones
+    // while over either capacity; a session that is locked or waited on is
+    // skipped
+    void sweep() {
+        sweepQueued.set(false);
+        long now = System.nanoTime();
+        List<GameSession> candidates = new ArrayList<>(sessions.values());
+        candidates.sort(Comparator.comparingLong(session -> session.getLastAccess() - now));
+        int excess = sessions.size() - maxGames;
+        long excessCells = totalCells.get() - maxCells;
+        for (GameSession session : candidates) {
+            boolean idle = now - session.getLastAccess() > idleTtlNanos;
+            if (!idle && excess <= 0 && excessCells <= 0) {
+                break;
+            }
+            int cells = evict(session);
+            if (cells != -1) {
+                excess--;
+                excessCells -= cells;
+            }
+        }
+    }
+
+    // The cells the session held, or -1 when it was kept
+    private int evict(GameSession session) {
+        if (session.lock().isLocked() || session.lock().hasQueuedThreads() || !session.lock().tryLock()) {
+            return -1;
+        }
+        try {
+            if (session.lock().hasQueuedThreads() || !sessions.remove(session.getGameId(), session)) {
+                return -1;
+            }
+            session.evict();
+            totalCells.addAndGet(-session.cells());
+            return session.cells();
+        } finally {
+            session.lock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+}
@@ -0,0 +1,160 @@
+package com.team.name.bestrestservice;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Reads /move bodies token by token straight into a Board; the String[][]
+// field is only built if someone asks for it
+public class GameStatusDeserializer extends StdDeserializer<SpaceshipAI.GameStatus> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Scratch<FieldBuffer> BUFFER = new Scratch<>(FieldBuffer::new);
+
+    // Null when Jackson is used outside Spring, which then times nothing
+    private final transient DecisionMetrics metrics;
+
+    public GameStatusDeserializer() {
+        this(null);
+    }
+
+    // Spring's ObjectMapper builds deserializers through the bean factory
+    @Autowired
+    public GameStatusDeserializer(DecisionMetrics metrics) {
+        super(SpaceshipAI.GameStatus.class);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public SpaceshipAI.GameStatus deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartObjectToken()) {
+            return (SpaceshipAI.GameStatus) context.handleUnexpectedToken(SpaceshipAI.GameStatus.class, parser);
+        }
+        long started = System.nanoTime();
+        Board board = null;
+        int narrowingIn = 0;
+        int gameId = 0;
+
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "field":
+                    board = readField(parser, context);
+                    break;
+                case "narrowingIn":
+                    narrowingIn = value == JsonToken.VALUE_NULL ? 0 : parser.getValueAsInt();
+                    break;
+                case "gameId":
+                    gameId = value == JsonToken.VALUE_NULL ? 0 : parser.getValueAsInt();
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        SpaceshipAI.GameStatus gameStatus = new SpaceshipAI.GameStatus(board != null ? board : new Board(), narrowingIn, gameId);
+        if (metrics != null) {
+            metrics.record(DecisionMetrics.Phase.BIND, System.nanoTime() - started);
+        }
+        return gameStatus;
+    }
+
+    // The field's size is only known once it has been read, so cells are
+    // encoded into a scratch buffer first and copied into a board that fits
+    private Board readField(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            context.handleUnexpectedToken(String[][].class, parser);
+        }
+        FieldBuffer buffer = BUFFER.acquire();
+        try {
+            return readField(parser, buffer);
+        } finally {
+            BUFFER.release(buffer);
+        }
+    }
+
+    private static Board readField(JsonParser parser, FieldBuffer buffer) throws IOException {
+        int width = 0;
+        int y = 0;
+        JsonToken row;
+        while ((row = parser.nextToken()) != JsonToken.END_ARRAY) {
+            int x = 0;
+            if (row == JsonToken.START_ARRAY) {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (x < Board.MAX_SIZE && y < Board.MAX_SIZE) {
+                        byte cell = Board.EMPTY;
+                        if (token == JsonToken.VALUE_STRING) {
+                            cell = Board.encode(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                        } else {
+                            parser.skipChildren();
+                        }
+                        buffer.put(y, x, cell);
+                    } else {
+                        parser.skipChildren();
+                    }
+                    x++;
+                }
+            } else {
+                parser.skipChildren();
+            }
+            if (y < Board.MAX_SIZE) {
+                buffer.endRow(y, Math.min(x, Board.MAX_SIZE));
+                width = Math.max(width, Math.min(x, Board.MAX_SIZE));
+            }
+            y++;
+        }
+        int height = Math.min(y, Board.MAX_SIZE);
+        if (width == 0) {
+            return new Board();
+        }
+        Board board = new Board(width, height);
+        for (int r = 0; r < height; r++) {
+            int length = buffer.rowLength(r);
+            for (int x = 0; x < length; x++) {
+                board.put(board.index(x, r), buffer.cell(r, x));
+            }
+        }
+        return board;
+    }
+
+    // Rows as they arrive, each at a fixed stride of MAX_SIZE cells
+    private static final class FieldBuffer {
+        private byte[] cells = new byte[Board.SIZE * Board.MAX_SIZE];
+        private int[] rowLengths = new int[Board.SIZE];
+
+        void put(int y, int x, byte cell) {
+            int index = y * Board.MAX_SIZE + x;
+            if (index >= cells.length) {
+                cells = Arrays.copyOf(cells, Math.max(cells.length * 2, (y + 1) * Board.MAX_SIZE));
+            }
+            cells[index] = cell;
+        }
+
+        void endRow(int y, int length) {
+            if (y >= rowLengths.length) {
+                rowLengths = Arrays.copyOf(rowLengths, Math.max(rowLengths.length * 2, y + 1));
+            }
+            rowLengths[y] = length;
+        }
+
+        int rowLength(int y) {
+            return rowLengths[y];
+        }
+
+        byte cell(int y, int x) {
+            return cells[y * Board.MAX_SIZE + x];
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.team.name.bestrestservice;
+
+public final class Moves {
+
+    // Move codes in the order the game names them; SKIP answers with a null move
+    public static final int SKIP = 0;
+    public static final int MOVE = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+    public static final int FIRE = 4;
+    public static final int COUNT = 5;
+    public static final int NONE = -1;
+
+    private static final String[] NAMES = {null, "M", "L", "R", "F"};
+
+    private Moves() {
+    }
+
+    public static String name(int move) {
+        return move == NONE ? null : NAMES[move];
+    }
+
+    public static int of(String name) {
+        if (name == null) {
+            return SKIP;
+        }
+        switch (name) {
+            case "M":
+                return MOVE;
+            case "L":
+                return LEFT;
+            case "R":
+                return RIGHT;
+            case "F":
+                return FIRE;
+            default:
+                return SKIP;
+        }
+    }
+
+    // Heading after applying the move; only rotations change it
+    public static int turn(int heading, int move) {
+        if (move == LEFT) {
+            return (heading + 3) & 3;
+        }
+        if (move == RIGHT) {
+            return (heading + 1) & 3;
+        }
+        return heading;
+    }
+}
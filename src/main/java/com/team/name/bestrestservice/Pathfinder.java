@@ -0,0 +1,171 @@
+package com.team.name.bestrestservice;
+
+import java.util.Arrays;
+
+// A* over (cell, heading) states, where rotating costs a tick just like
+// moving does. DistanceField hands it the targets its flood does not reach,
+// so a route across a large board explores cells along the way rather than
+// everything within that distance.
+public final class Pathfinder {
+
+    public static final int NO_PATH = -1;
+
+    private static final int BUCKETS = 8;
+    private static final Scratch<Pathfinder> SCRATCH = new Scratch<>(Pathfinder::new);
+
+    // Scratch space reused by every search on this thread; a state's cost
+    // and first move count only when its stamp matches the current generation
+    private int[] stamp = new int[Board.CELLS * 4];
+    private int[] closed = new int[Board.CELLS * 4];
+    private int[] cost = new int[Board.CELLS * 4];
+    private byte[] first = new byte[Board.CELLS * 4];
+    private int generation;
+
+    // Open states by estimated total. That never drops along a route and
+    // grows by at most four per step, so eight buckets used round-robin hold
+    // every open state. Buckets are stacks, which follow one route across a
+    // plateau of equal estimates instead of widening over all of it.
+    private int[] entryState = new int[256];
+    private int[] entryNext = new int[256];
+    private int entries;
+    private final int[] buckets = new int[BUCKETS];
+
+    // Hand it back with release once done
+    public static Pathfinder acquire() {
+        return SCRATCH.acquire();
+    }
+
+    public static void release(Pathfinder pathfinder) {
+        SCRATCH.release(pathfinder);
+    }
+
+    // Cheapest route from origin, facing heading or any way for free with
+    // NO_HEADING, to the passable target cell, facing targetHeading or any
+    // way with NO_HEADING. Returns the length and the first move packed into
+    // one int, or NO_PATH.
+    public int find(Board board, int origin, int heading, int target, int targetHeading) {
+        int states = board.cellCount() * 4;
+        if (stamp.length < states) {
+            stamp = new int[states];
+            closed = new int[states];
+            cost = new int[states];
+            first = new byte[states];
+            generation = 0;
+        }
+        int gen = nextGeneration();
+        int tx = board.x(target);
+        int ty = board.y(target);
+        entries = 0;
+        Arrays.fill(buckets, -1);
+
+        int f = Integer.MAX_VALUE;
+        for (int h = 0; h < 4; h++) {
+            if (heading == Board.NO_HEADING || heading == h) {
+                int state = origin << 2 | h;
+                stamp[state] = gen;
+                cost[state] = 0;
+                first[state] = Moves.SKIP;
+                int estimate = estimate(board, origin, h, tx, ty);
+                push(state, estimate);
+                f = Math.min(f, estimate);
+            }
+        }
+
+        for (int empty = 0; empty < BUCKETS; f++) {
+            int bucket = f & (BUCKETS - 1);
+            if (buckets[bucket] == -1) {
+                empty++;
+                continue;
+            }
+            empty = 0;
+            while (buckets[bucket] != -1) {
+                int entry = buckets[bucket];
+                buckets[bucket] = entryNext[entry];
+                int state = entryState[entry];
+                if (closed[state] == gen) {
+                    continue;
+                }
+                closed[state] = gen;
+                int cell = state >> 2;
+                int h = state & 3;
+                if (cell == target && (targetHeading == Board.NO_HEADING || targetHeading == h)) {
+                    return pack(cost[state], first[state]);
+                }
+
+                int g = cost[state] + 1;
+                int move = first[state];
+                int ahead = board.step(cell, h);
+                if (ahead != -1 && board.isPassable(ahead)) {
+                    relax(board, ahead << 2 | h, g, move == Moves.SKIP ? Moves.MOVE : move, tx, ty, gen);
+                }
+                relax(board, cell << 2 | Moves.turn(h, Moves.LEFT), g, move == Moves.SKIP ? Moves.LEFT : move, tx, ty, gen);
+                relax(board, cell << 2 | Moves.turn(h, Moves.RIGHT), g, move == Moves.SKIP ? Moves.RIGHT : move, tx, ty, gen);
+            }
+        }
+        return NO_PATH;
+    }
+
+    public static int distance(int result) {
+        return result >>> 3;
+    }
+
+    public static int firstMove(int result) {
+        return result & 7;
+    }
+
+    private static int pack(int distance, int move) {
+        return distance << 3 | move;
+    }
+
+    private void relax(Board board, int state, int g, int move, int tx, int ty, int gen) {
+        if (closed[state] == gen || (stamp[state] == gen && cost[state] <= g)) {
+            return;
+        }
+        stamp[state] = gen;
+        cost[state] = g;
+        first[state] = (byte) move;
+        push(state, g + estimate(board, state >> 2, state & 3, tx, ty));
+    }
+
+    private void push(int state, int f) {
+        if (entries == entryState.length) {
+            entryState = Arrays.copyOf(entryState, entries * 2);
+            entryNext = Arrays.copyOf(entryNext, entries * 2);
+        }
+        int bucket = f & (BUCKETS - 1);
+        entryState[entries] = state;
+        entryNext[entries] = buckets[bucket];
+        buckets[bucket] = entries++;
+    }
+
+    // Steps still to walk plus the fewest rotations that lets us walk them:
+    // one less than the axes left to cover when facing along one of them,
+    // otherwise one per axis, or two to turn round onto a single one
+    private static int estimate(Board board, int cell, int heading, int tx, int ty) {
+        int dx = tx - board.x(cell);
+        int dy = ty - board.y(cell);
+        int axes = (dx != 0 ? 1 : 0) + (dy != 0 ? 1 : 0);
+        int hx = Board.dx(heading);
+        int hy = Board.dy(heading);
+        int turns;
+        if (axes == 0) {
+            turns = 0;
+        } else if ((hx != 0 && hx == Integer.signum(dx)) || (hy != 0 && hy == Integer.signum(dy))) {
+            turns = axes - 1;
+        } else if (axes == 1 && (hx == -Integer.signum(dx) && dx != 0 || hy == -Integer.signum(dy) && dy != 0)) {
+            turns = 2;
+        } else {
+            turns = axes;
+        }
+        return Math.abs(dx) + Math.abs(dy) + turns;
+    }
+
+    private int nextGeneration() {
+        if (++generation == 0) {
+            Arrays.fill(stamp, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+        return generation;
+    }
+}
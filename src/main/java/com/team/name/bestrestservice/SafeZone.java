@@ -0,0 +1,139 @@
+package com.team.name.bestrestservice;
+
+import java.util.Arrays;
+
+// When each ring of the arena closes, counted in ticks. Ring 0 is the outer
+// edge and rings close from the outside in, one per narrowing. The schedule
+// is kept as absolute ticks so that it only has to be rebuilt when a
+// narrowing happens or the countdown disagrees with it.
+public final class SafeZone {
+
+    public static final int NEVER = Integer.MAX_VALUE;
+    // Ticks a target should stay open after we get there, to move on in time
+    public static final int MARGIN = 3;
+
+    private Board board;
+    private long[] closesAt;
+    private long tick;
+    private long nextNarrowing = -1;
+    private int closed;
+    private int closedAtStart = -1;
+    private int narrowings;
+    private int lastNarrowingIn = -1;
+    // Ticks between narrowings; until one has been seen, the longest countdown
+    // so far is a lower bound, which errs towards closing too early
+    private int period;
+    private boolean scheduled;
+
+    // Standalone zone for a single board, without history
+    public static SafeZone of(Board board, int narrowingIn) {
+        SafeZone zone = new SafeZone();
+        zone.update(board, narrowingIn);
+        return zone;
+    }
+
+    // Called once per tick with the new board and its countdown
+    public void update(Board board, int narrowingIn) {
+        if (this.board == null || !this.board.sameShape(board)) {
+            // A new arena, so nothing seen so far applies to it
+            closesAt = new long[board.rings()];
+            Arrays.fill(closesAt, Long.MAX_VALUE);
+            closed = 0;
+            closedAtStart = -1;
+            scheduled = false;
+        }
+        this.board = board;
+        tick++;
+        int onBoard = closedRings(board, closed);
+        if (closedAtStart == -1) {
+            closedAtStart = onBoard;
+        }
+        if (lastNarrowingIn != -1 && narrowingIn > lastNarrowingIn) {
+            // The countdown restarted, so the arena just narrowed
+            narrowings++;
+            period = narrowingIn + 1;
+        } else if (narrowings == 0) {
+            period = Math.max(period, narrowingIn + 1);
+        }
+        lastNarrowingIn = narrowingIn;
+
+        int nowClosed = Math.max(onBoard, closedAtStart + narrowings);
+        boolean known = narrowingIn > 0 || period > 1;
+        if (nowClosed != closed || known != scheduled || tick + narrowingIn != nextNarrowing) {
+            closed = nowClosed;
+            scheduled = known;
+            nextNarrowing = tick + narrowingIn;
+            rebuild();
+        }
+    }
+
+    void copyFrom(SafeZone other) {
+        board = other.board;
+        closesAt = other.closesAt == null ? null : other.closesAt.clone();
+        tick = other.tick;
+        nextNarrowing = other.nextNarrowing;
+        closed = other.closed;
+        closedAtStart = other.closedAtStart;
+        narrowings = other.narrowings;
+        lastNarrowingIn = other.lastNarrowingIn;
+        period = other.period;
+        scheduled = other.scheduled;
+    }
+
+    private void rebuild() {
+        Arrays.fill(closesAt, Long.MAX_VALUE);
+        // The innermost ring is what is left at the end and never closes
+        for (int ring = 0; ring < closesAt.length - 1; ring++) {
+            if (ring < closed) {
+                closesAt[ring] = Long.MIN_VALUE;
+            } else if (scheduled) {
+                closesAt[ring] = nextNarrowing + (long) (ring - closed) * period;
+            }
+        }
+    }
+
+    // Rings from the edge in that are solid asteroid, starting the check at from
+    private static int closedRings(Board board, int from) {
+        int ring = from;
+        while (ring < board.rings() - 1 && isClosed(board, ring)) {
+            ring++;
+        }
+        return ring;
+    }
+
+    // Walks the ring's perimeter only, so the check grows with the side, not the area
+    private static boolean isClosed(Board board, int ring) {
+        int right = board.width() - 1 - ring;
+        int bottom = board.height() - 1 - ring;
+        for (int x = ring; x <= right; x++) {
+            if (!board.is(board.index(x, ring), Board.ASTEROID) || !board.is(board.index(x, bottom), Board.ASTEROID)) {
+                return false;
+            }
+        }
+        for (int y = ring; y <= bottom; y++) {
+            if (!board.is(board.index(ring, y), Board.ASTEROID) || !board.is(board.index(right, y), Board.ASTEROID)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int closedRings() {
+        return closed;
+    }
+
+    // Ticks left before the cell's ring closes: 0 if it already has, NEVER if
+    // no narrowing is expected to reach it
+    public int ticksUntilClosed(int cell) {
+        long at = closesAt[board.ring(cell)];
+        if (at == Long.MAX_VALUE) {
+            return NEVER;
+        }
+        return at <= tick ? 0 : (int) Math.min(at - tick, NEVER - 1);
+    }
+
+    // True if the cell is still open ticksAhead ticks from now
+    public boolean isSafe(int cell, int ticksAhead) {
+        return ticksUntilClosed(cell) > ticksAhead;
+    }
+}
@@ -0,0 +1,73 @@
+package com.team.name.bestrestservice;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Reusable scratch space for one thread at a time. A platform thread keeps
+// its own in a ThreadLocal. A virtual thread only lives for one request, so a
+// ThreadLocal would build a new one every time; it borrows from a shared pool
+// instead and hands the object back with release.
+public final class Scratch<T> {
+
+    // Thread.isVirtual only exists from Java 21
+    private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+    private static final int POOL_LIMIT = Runtime.getRuntime().availableProcessors() * 4;
+
+    private final Supplier<T> factory;
+    private final ThreadLocal<T> local;
+    private final ConcurrentLinkedQueue<T> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    public Scratch(Supplier<T> factory) {
+        this.factory = factory;
+        this.local = ThreadLocal.withInitial(factory);
+    }
+
+    // The caller has it until release; only a virtual thread needs to call
+    // that, but calling it from any thread is fine
+    public T acquire() {
+        if (!onVirtualThread()) {
+            return local.get();
+        }
+        T value = pool.poll();
+        if (value == null) {
+            return factory.get();
+        }
+        pooled.decrementAndGet();
+        return value;
+    }
+
+    public void release(T value) {
+        if (value == null || !onVirtualThread()) {
+            return;
+        }
+        if (pooled.incrementAndGet() <= POOL_LIMIT) {
+            pool.offer(value);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+
+    static boolean onVirtualThread() {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(Thread.currentThread());
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    private static MethodHandle isVirtualHandle() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
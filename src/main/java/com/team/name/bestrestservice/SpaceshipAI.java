@@ -1,119 +1,124 @@
 package com.team.name.bestrestservice;
 
-import java.util.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import com.team.name.bestrestservice.metrics.DecisionMetrics.Phase;
 
-public class SpaceshipAI {
+public class SpaceshipAI implements DecisionEngine {
 
-    public String decideMove(GameStatus gameStatus) {
-        String[][] field = gameStatus.getField();
+    // Expected hits needed before a shot is worth a tick
+    private static final float FIRE_THRESHOLD = 0.5f;
+    // Ticks a coin may be away to be picked up on the way to the center
+    private static final int PICKUP_DETOUR = 2;
 
-        int shipX = -1;
-        int shipY = -1;
-        char shipDirection = ' ';
+    // Null for engines outside the service, such as the tournament's
+    private final DecisionMetrics metrics;
 
-        // Find our ship
-        outerLoop:
-        for (int y = 0; y < 13; y++) {
-            for (int x = 0; x < 13; x++) {
-                String cell = field[y][x];
-                if (cell != null && cell.startsWith("P")) {
-                    shipX = x;
-                    shipY = y;
-                    shipDirection = cell.charAt(1);
-                    break outerLoop;
-                }
-            }
-        }
+    public SpaceshipAI() {
+        this(null);
+    }
 
-        if (shipX == -1 || shipY == -1) {
+    public SpaceshipAI(DecisionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String decideMove(GameStatus gameStatus) {
+        long started = System.nanoTime();
+        Board board = gameStatus.getBoard();
+
+        // Find our ship
+        int ship = board.player();
+        if (ship == -1) {
             // Ship not found, default to do nothing
             return null;
         }
+        int shipX = board.x(ship);
+        int shipY = board.y(ship);
+        int shipDirection = board.playerHeading();
 
         // Coordinates of the center
-        int centerX = 6;
-        int centerY = 6;
+        int centerX = board.width() / 2;
+        int centerY = board.height() / 2;
+
+        boolean atCenter = shipX == centerX && shipY == centerY;
+        int coin = coinWorthTaking(gameStatus, board, atCenter);
+        if (coin != -1) {
+            // Collect coins along the tour when they cost next to nothing, or when nobody is left to fight
+            String move = moveTowards(ship, shipDirection, board.x(coin), board.y(coin), gameStatus.getThreats(),
+                    gameStatus.getDistances(), gameStatus.getSafeZone());
+            record(Phase.PATH, System.nanoTime() - started);
+            return move;
+        }
 
-        if (shipX != centerX || shipY != centerY) {
+        if (!atCenter) {
             // Move towards the center, but check for enemies in front
-            String move = moveTowards(shipX, shipY, shipDirection, centerX, centerY, field);
+            String move = moveTowards(ship, shipDirection, centerX, centerY, gameStatus.getThreats(),
+                    gameStatus.getDistances(), gameStatus.getSafeZone());
+            record(Phase.PATH, System.nanoTime() - started);
             return move;
         } else {
-            // At the center, rotate and fire at enemies as before
-            String move = rotateAndFireAtEnemy(shipX, shipY, shipDirection, field);
+            // At the center, aim where the enemies are likely to be next
+            GameSession session = gameStatus.getSession();
+            if (session != null && shipDirection != Board.NO_HEADING) {
+                String move = aimAtPredictedEnemies(ship, shipDirection, session.enemies());
+                if (move != null) {
+                    record(Phase.TARGET, System.nanoTime() - started);
+                    return move;
+                }
+            }
+            // Otherwise rotate and fire at the nearest enemy as before
+            String move = rotateAndFireAtEnemy(shipX, shipY, shipDirection, board, gameStatus.getThreats());
+            record(Phase.TARGET, System.nanoTime() - started);
             return move;
         }
     }
 
-    private String moveTowards(int shipX, int shipY, char shipDirection, int targetX, int targetY, String[][] field) {
-        // Use BFS to find the next step towards the target avoiding obstacles
-        int[][] directions = {{0, -1}, {1, 0}, {0, 1}, {-1, 0}};
-        char[] dirChars = {'N', 'E', 'S', 'W'};
-        boolean[][] visited = new boolean[13][13];
-        int[][] prevX = new int[13][13];
-        int[][] prevY = new int[13][13];
-
-        Queue<int[]> queue = new LinkedList<>();
-        queue.add(new int[]{shipX, shipY});
-        visited[shipY][shipX] = true;
-
-        boolean found = false;
-        while (!queue.isEmpty()) {
-            int[] current = queue.poll();
-            int curX = current[0];
-            int curY = current[1];
-
-            if (curX == targetX && curY == targetY) {
-                found = true;
-                break;
-            }
+    private void record(Phase phase, long nanos) {
+        if (metrics != null) {
+            metrics.record(phase, nanos);
+        }
+    }
 
-            for (int i = 0; i < directions.length; i++) {
-                int newX = curX + directions[i][0];
-                int newY = curY + directions[i][1];
+    private int coinWorthTaking(GameStatus gameStatus, Board board, boolean atCenter) {
+        if (board.coinCount() == 0 || (atCenter && board.enemyCount() > 0)) {
+            return -1;
+        }
+        int coin = gameStatus.getCoinTour().next(gameStatus.getSafeZone(), SafeZone.MARGIN);
+        if (coin == -1 || board.enemyCount() == 0) {
+            return coin;
+        }
+        return gameStatus.getDistances().distance(coin) <= PICKUP_DETOUR ? coin : -1;
+    }
 
-                if (isValidCell(newX, newY, field) && !visited[newY][newX]) {
-                    visited[newY][newX] = true;
-                    queue.add(new int[]{newX, newY});
-                    prevX[newY][newX] = curX;
-                    prevY[newY][newX] = curY;
-                }
-            }
+    private String moveTowards(int ship, int shipDirection, int targetX, int targetY, ThreatMap threats,
+                               DistanceField distances, SafeZone zone) {
+        // Look up the first move of the cheapest route, rotations included
+        int move = distances.firstMove(distances.board().index(targetX, targetY));
+
+        if (move == Moves.NONE) {
+            // No path to the target, so at least keep out of the closing rings
+            int safe = distances.nearestSafe(zone, SafeZone.MARGIN);
+            move = safe != -1 ? distances.firstMove(safe) : Moves.NONE;
         }
 
-        if (!found) {
+        if (move == Moves.NONE) {
             // No path found, default to rotate
             return "L";
         }
 
-        // Reconstruct path
-        List<int[]> path = new ArrayList<>();
-        int pathX = targetX;
-        int pathY = targetY;
-        while (pathX != shipX || pathY != shipY) {
-            path.add(new int[]{pathX, pathY});
-            int tempX = prevX[pathY][pathX];
-            int tempY = prevY[pathY][pathX];
-            pathX = tempX;
-            pathY = tempY;
-        }
-        Collections.reverse(path);
-
-        if (path.isEmpty()) {
+        if (move == Moves.SKIP) {
             // Already at the target
             return null; // Skip turn
         }
 
-        int nextX = path.get(0)[0];
-        int nextY = path.get(0)[1];
-        char desiredDirection = getDirection(shipX, shipY, nextX, nextY);
-
-        if (shipDirection != desiredDirection) {
+        if (move != Moves.MOVE) {
             // Rotate towards the desired direction
-            return rotateTowards(shipDirection, desiredDirection);
+            return Moves.name(move);
         } else {
             // Check if there is an enemy directly ahead within firing range
-            if (isEnemyInFiringRange(shipX, shipY, shipDirection, field)) {
+            if (shipDirection != Board.NO_HEADING && threats.canHit(ship, shipDirection)) {
                 return "F";
             } else {
                 // Attempt to move forward
@@ -122,125 +127,74 @@ public class SpaceshipAI {
         }
     }
 
-    private boolean isEnemyInFiringRange(int shipX, int shipY, char direction, String[][] field) {
-        int range = 4;
-        int dx = 0, dy = 0;
-
-        switch (direction) {
-            case 'N':
-                dy = -1;
-                break;
-            case 'S':
-                dy = 1;
-                break;
-            case 'E':
-                dx = 1;
-                break;
-            case 'W':
-                dx = -1;
-                break;
-        }
-
-        int currentX = shipX;
-        int currentY = shipY;
-        for (int i = 1; i <= range; i++) {
-            currentX += dx;
-            currentY += dy;
-
-            if (currentX < 0 || currentX >= 13 || currentY < 0 || currentY >= 13) {
-                break; // Out of bounds
-            }
-
-            String cell = field[currentY][currentX];
+    private String aimAtPredictedEnemies(int ship, int shipDirection, EnemyTracker enemies) {
+        float ahead = enemies.expectedHits(ship, shipDirection);
+        if (ahead >= FIRE_THRESHOLD) {
+            return "F";
+        }
 
-            if (cell != null) {
-                if (cell.startsWith("A")) {
-                    break; // Asteroid blocks the blast
-                }
-                if (cell.startsWith("E")) {
-                    return true; // Enemy is in firing range
-                }
+        // Turn towards the heading with the best odds, if any is worth it
+        int bestDirection = shipDirection;
+        float best = ahead;
+        for (int heading = 0; heading < 4; heading++) {
+            float hits = enemies.expectedHits(ship, heading);
+            if (hits > best) {
+                best = hits;
+                bestDirection = heading;
             }
         }
-
-        return false;
-    }
-
-    private char getDirection(int fromX, int fromY, int toX, int toY) {
-        if (toX - fromX == 1) return 'E';
-        if (toX - fromX == -1) return 'W';
-        if (toY - fromY == 1) return 'S';
-        if (toY - fromY == -1) return 'N';
-        return 'N'; // Default
-    }
-
-    private boolean isValidCell(int x, int y, String[][] field) {
-        if (x < 0 || x >= 13 || y < 0 || y >= 13) {
-            return false;
+        if (bestDirection != shipDirection && best >= FIRE_THRESHOLD) {
+            return rotateTowards(shipDirection, bestDirection);
         }
-        String cell = field[y][x];
-        return cell == null || cell.equals("_") || cell.equals("C");
+        return null;
     }
 
-    private String rotateAndFireAtEnemy(int shipX, int shipY, char shipDirection, String[][] field) {
+    private String rotateAndFireAtEnemy(int shipX, int shipY, int shipDirection, Board board, ThreatMap threats) {
         // Find the nearest enemy ship
-        EnemyShip nearestEnemy = null;
+        int nearestEnemy = -1;
         int minDistance = Integer.MAX_VALUE;
 
-        for (int y = 0; y < 13; y++) {
-            for (int x = 0; x < 13; x++) {
-                String cell = field[y][x];
-                if (cell != null && cell.startsWith("E")) {
-                    int distance = Math.abs(x - shipX) + Math.abs(y - shipY);
-                    if (distance < minDistance) {
-                        minDistance = distance;
-                        char enemyDirection = cell.charAt(1);
-                        nearestEnemy = new EnemyShip(x, y, enemyDirection);
-                    }
-                }
+        for (int i = 0; i < board.enemyCount(); i++) {
+            int enemy = board.enemy(i);
+            int distance = Math.abs(board.x(enemy) - shipX) + Math.abs(board.y(enemy) - shipY);
+            if (distance < minDistance) {
+                minDistance = distance;
+                nearestEnemy = enemy;
             }
         }
 
-        if (nearestEnemy == null) {
+        if (nearestEnemy == -1) {
             // No enemies found
             return null;
         }
 
         // Calculate the enemy's next position based on their current direction
-        int enemyNextX = nearestEnemy.x;
-        int enemyNextY = nearestEnemy.y;
-
-        switch (nearestEnemy.direction) {
-            case 'N':
-                enemyNextY -= 1;
-                break;
-            case 'E':
-                enemyNextX += 1;
-                break;
-            case 'S':
-                enemyNextY += 1;
-                break;
-            case 'W':
-                enemyNextX -= 1;
-                break;
+        int enemyX = board.x(nearestEnemy);
+        int enemyY = board.y(nearestEnemy);
+        int enemyNextX = enemyX;
+        int enemyNextY = enemyY;
+        int enemyDirection = Board.heading(board.cell(nearestEnemy));
+        if (enemyDirection != Board.NO_HEADING) {
+            enemyNextX += Board.dx(enemyDirection);
+            enemyNextY += Board.dy(enemyDirection);
         }
 
         // Ensure the next position is within bounds
-        if (enemyNextX < 0 || enemyNextX >= 13 || enemyNextY < 0 || enemyNextY >= 13) {
+        if (!board.inBounds(enemyNextX, enemyNextY)) {
             // If out of bounds, use the enemy's current position
-            enemyNextX = nearestEnemy.x;
-            enemyNextY = nearestEnemy.y;
+            enemyNextX = enemyX;
+            enemyNextY = enemyY;
         }
 
         // Calculate the desired direction to face
-        char desiredDirection = calculateDesiredDirection(shipX, shipY, enemyNextX, enemyNextY);
+        int desiredDirection = calculateDesiredDirection(shipX, shipY, enemyNextX, enemyNextY);
 
         if (shipDirection != desiredDirection) {
             // Rotate towards the desired direction
             return rotateTowards(shipDirection, desiredDirection);
         } else {
             // Check if the enemy is within firing range
-            if (isSpecificEnemyInFiringRange(shipX, shipY, shipDirection, nearestEnemy, field)) {
+            if (threats.canHit(board.index(shipX, shipY), shipDirection, nearestEnemy)) {
                 // Fire at the enemy
                 return "F";
             } else {
@@ -250,71 +204,23 @@ public class SpaceshipAI {
         }
     }
 
-    private boolean isSpecificEnemyInFiringRange(int shipX, int shipY, char direction, EnemyShip enemy, String[][] field) {
-        int range = 4;
-        int dx = 0, dy = 0;
-
-        switch (direction) {
-            case 'N':
-                dy = -1;
-                break;
-            case 'S':
-                dy = 1;
-                break;
-            case 'E':
-                dx = 1;
-                break;
-            case 'W':
-                dx = -1;
-                break;
-        }
-
-        int currentX = shipX;
-        int currentY = shipY;
-        for (int i = 1; i <= range; i++) {
-            currentX += dx;
-            currentY += dy;
-
-            if (currentX < 0 || currentX >= 13 || currentY < 0 || currentY >= 13) {
-                break; // Out of bounds
-            }
-
-            String cell = field[currentY][currentX];
-
-            if (cell != null) {
-                if (cell.startsWith("A")) {
-                    break; // Asteroid blocks the blast
-                }
-                if (currentX == enemy.x && currentY == enemy.y) {
-                    return true; // Specific enemy is in firing range
-                }
-            }
-        }
-
-        return false;
-    }
-
-    private char calculateDesiredDirection(int fromX, int fromY, int toX, int toY) {
+    private int calculateDesiredDirection(int fromX, int fromY, int toX, int toY) {
         int dx = toX - fromX;
         int dy = toY - fromY;
 
         if (dx == 0 && dy == 0) {
             // Same position, arbitrary direction
-            return 'N';
+            return Board.NORTH;
         }
 
         if (Math.abs(dx) >= Math.abs(dy)) {
-            return dx > 0 ? 'E' : 'W';
+            return dx > 0 ? Board.EAST : Board.WEST;
         } else {
-            return dy > 0 ? 'S' : 'N';
+            return dy > 0 ? Board.SOUTH : Board.NORTH;
         }
     }
 
-    private String rotateTowards(char currentDirection, char desiredDirection) {
-        String directions = "NESW";
-        int currentIndex = directions.indexOf(currentDirection);
-        int desiredIndex = directions.indexOf(desiredDirection);
-
+    private String rotateTowards(int currentIndex, int desiredIndex) {
         int leftTurns = (currentIndex - desiredIndex + 4) % 4;
         int rightTurns = (desiredIndex - currentIndex + 4) % 4;
 
@@ -325,21 +231,17 @@ public class SpaceshipAI {
         }
     }
 
-    class EnemyShip {
-        int x, y;
-        char direction;
-
-        EnemyShip(int x, int y, char direction) {
-            this.x = x;
-            this.y = y;
-            this.direction = direction;
-        }
-    }
-
+    @JsonDeserialize(using = GameStatusDeserializer.class)
     public static class GameStatus {
-        String[][] field = new String[13][13];
+        String[][] field;
         int narrowingIn;
         int gameId;
+        private Board board;
+        private GameSession session;
+        private SafeZone zone;
+        private CoinTour tour;
+        private ThreatMap threats;
+        private long deadline = Long.MAX_VALUE;
 
         public GameStatus(String[][] field, int narrowingIn, int gameId) {
             this.field = field;
@@ -347,12 +249,99 @@ public class SpaceshipAI {
             this.gameId = gameId;
         }
 
+        // Built by the streaming deserializer, which never materializes the field
+        public GameStatus(Board board, int narrowingIn, int gameId) {
+            this.board = board;
+            this.narrowingIn = narrowingIn;
+            this.gameId = gameId;
+        }
+
         public String[][] getField() {
+            if (field == null && board != null) {
+                field = board.toField();
+            }
             return field;
         }
 
         public void setField(String[][] field) {
             this.field = field;
+            this.board = null;
+        }
+
+        // Encoded once per request and shared by every engine that looks at it
+        @JsonIgnore
+        public Board getBoard() {
+            if (board == null) {
+                board = Board.of(field);
+            }
+            return board;
+        }
+
+        // Set by the controller when the game has a session to carry state between ticks
+        public void attach(GameSession session) {
+            this.session = session;
+        }
+
+        @JsonIgnore
+        public GameSession getSession() {
+            return session;
+        }
+
+        @JsonIgnore
+        public DistanceField getDistances() {
+            return session != null ? session.distances(getBoard()) : DistanceField.of(getBoard());
+        }
+
+        // Lines of fire on this board, shared by every engine that looks at it.
+        // On a platform thread the map is the thread's own, which another
+        // board may have taken over since, so it is checked on every call.
+        @JsonIgnore
+        public ThreatMap getThreats() {
+            if (threats == null) {
+                threats = ThreatMap.acquire();
+            }
+            return threats.board() == getBoard() ? threats : threats.compute(getBoard());
+        }
+
+        // Hands back the scratch this tick borrowed, once no engine looks at it any more
+        public void release() {
+            ThreatMap.release(threats);
+            threats = null;
+        }
+
+        // Order to collect the coins in, carried over from earlier ticks when there is a session
+        @JsonIgnore
+        public CoinTour getCoinTour() {
+            if (session != null && session.current() == getBoard()) {
+                return session.tour(getBoard());
+            }
+            if (tour == null) {
+                tour = CoinTour.of(getBoard(), getDistances());
+            }
+            return tour;
+        }
+
+        // The game's narrowing schedule, or one guessed from this tick alone
+        @JsonIgnore
+        public SafeZone getSafeZone() {
+            if (session != null && session.current() == getBoard()) {
+                return session.zone();
+            }
+            if (zone == null) {
+                zone = SafeZone.of(getBoard(), narrowingIn);
+            }
+            return zone;
+        }
+
+        // System.nanoTime() by which the answer is due; engines that can take
+        // long have to stop by then
+        @JsonIgnore
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public void setDeadline(long deadline) {
+            this.deadline = deadline;
         }
 
         public int getNarrowingIn() {
@@ -1,76 +1,56 @@
 package com.team.name.bestrestservice;
-import java.util.*;
 
-public class SpaceshipAiV0 {
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import com.team.name.bestrestservice.metrics.DecisionMetrics.Phase;
+
+public class SpaceshipAiV0 implements DecisionEngine {
 
     // Class-level variables
     private final int[] dx = { -1, 0, 1, 0 }; // North, East, South, West
     private final int[] dy = { 0, 1, 0, -1 }; // North, East, South, West
-    private final String[] directions = { "N", "E", "S", "W" };
-    private final String[] fullDirections = { "North", "East", "South", "West" };
-    private final int BOARD_SIZE = 13;
-    private final int CENTER = BOARD_SIZE / 2;
 
-    public String decideMove(SpaceshipAI.GameStatus gameStatus) {
-        String[][] field = gameStatus.field;
+    // Null for engines outside the service, such as the tournament's
+    private final DecisionMetrics metrics;
 
-        int myX = -1, myY = -1;
-        String myDirection = "";
+    public SpaceshipAiV0() {
+        this(null);
+    }
 
-        // Find our position and direction
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                String cell = field[i][j];
-                if (cell != null && cell.startsWith("P")) {
-                    myX = i;
-                    myY = j;
-                    if (cell.length() > 1) {
-                        myDirection = cell.substring(1); // Extract direction string
-                    }
-                    break;
-                }
-            }
-            if (myX != -1) break;
-        }
+    public SpaceshipAiV0(DecisionMetrics metrics) {
+        this.metrics = metrics;
+    }
 
-        if (myX == -1 || myY == -1 || myDirection.isEmpty()) {
+    @Override
+    public String decideMove(SpaceshipAI.GameStatus gameStatus) {
+        long started = System.nanoTime();
+        Board field = gameStatus.getBoard();
+
+        // Find our position and direction
+        int ship = field.player();
+        if (ship == -1) {
             // Could not find our ship or direction
             return "M"; // Default move
         }
+        int myX = field.y(ship);
+        int myY = field.x(ship);
 
         // Map direction to index
-        int dirIndex = getDirectionIndex(myDirection);
-        if (dirIndex == -1) {
+        int dirIndex = field.playerHeading();
+        if (dirIndex == Board.NO_HEADING) {
             // Invalid direction
             return "M"; // Default move
         }
 
         // Check for enemies in all directions except behind within radius 4
+        ThreatMap threats = gameStatus.getThreats();
         for (int i = 0; i < 4; i++) {
             if (isOppositeDirection(dirIndex, i)) {
                 continue; // Skip the direction opposite to current direction (enemy behind)
             }
 
-            boolean enemyInRange = false;
-            for (int distance = 1; distance <= 4; distance++) {
-                int newX = myX + dx[i] * distance;
-                int newY = myY + dy[i] * distance;
-
-                if (isOutOfBounds(newX, newY)) {
-                    break; // Can't look beyond the board
-                }
-
-                if (isAsteroid(field[newX][newY])) {
-                    break; // Path is blocked by asteroid
-                }
-
-                if (isEnemy(field[newX][newY])) {
-                    enemyInRange = true;
-                    break;
-                }
-            }
-
-            if (enemyInRange) {
+            // Asteroids block the line of fire; the map already accounts for them
+            if (threats.canHit(ship, i)) {
+                record(Phase.TARGET, System.nanoTime() - started);
                 // Rotate towards the enemy direction if not already facing it
                 String rotation = getMinimalRotationForEnemyRotation(dirIndex, i);
                 if (rotation != null) {
@@ -81,22 +61,27 @@ public class SpaceshipAiV0 {
                 }
             }
         }
+        long targeted = System.nanoTime();
+        record(Phase.TARGET, targeted - started);
 
         // Check if we are outside the center area
-        if (findNearestCoin(field, myX, myY) == null && !isWithinCenterArea(myX, myY)) {
+        DistanceField distances = gameStatus.getDistances();
+        SafeZone zone = gameStatus.getSafeZone();
+        // Next coin of the tour that we can pick up before its ring closes
+        int coinTarget = gameStatus.getCoinTour().next(zone, SafeZone.MARGIN);
+        if (coinTarget == -1 && !isWithinCenterArea(field, myX, myY, ship, zone)) {
             // Move towards the center
-            String moveToCenter = moveToCenter(field, myX, myY, dirIndex);
+            String moveToCenter = moveToCenter(field, distances, zone);
+            record(Phase.PATH, System.nanoTime() - targeted);
             if (moveToCenter != null) {
                 return moveToCenter;
             }
         } else {
             // Try to collect coins
-            int[] coinTarget = findNearestCoin(field, myX, myY);
-            if (coinTarget != null) {
-                String nextMove = getNextMoveTowardsTarget(field, myX, myY, dirIndex, coinTarget[0], coinTarget[1]);
-                if (nextMove != null) {
-                    return nextMove;
-                }
+            String nextMove = coinTarget != -1 ? getNextMoveTowardsTarget(distances, coinTarget) : null;
+            record(Phase.PATH, System.nanoTime() - targeted);
+            if (nextMove != null) {
+                return nextMove;
             }
         }
 
@@ -116,142 +101,53 @@ public class SpaceshipAiV0 {
         return "M"; // May result in staying in place if blocked
     }
 
-    private boolean isOppositeDirection(int currentIndex, int targetIndex) {
-        return (currentIndex + 2) % 4 == targetIndex;
-    }
-
-    private int getDirectionIndex(String direction) {
-        for (int i = 0; i < directions.length; i++) {
-            if (direction.equals(directions[i]) || direction.equals(fullDirections[i])) {
-                return i;
-            }
+    private void record(Phase phase, long nanos) {
+        if (metrics != null) {
+            metrics.record(phase, nanos);
         }
-        return -1; // Direction not found
     }
 
-    private boolean isEnemy(String cell) {
-        return cell != null && cell.startsWith("E");
-    }
-
-    private boolean isAsteroid(String cell) {
-        return "A".equals(cell);
+    private boolean isOppositeDirection(int currentIndex, int targetIndex) {
+        return (currentIndex + 2) % 4 == targetIndex;
     }
 
-    private boolean isEmpty(String cell) {
-        return "_".equals(cell) || "C".equals(cell);
+    // Rows and columns here are the board's y and x
+    private int at(Board field, int row, int col) {
+        return field.index(col, row);
     }
 
-    private boolean isWithinBounds(int x, int y) {
-        return x >= 0 && x < BOARD_SIZE && y >= 0 && y < BOARD_SIZE;
+    private boolean isWithinBounds(Board field, int x, int y) {
+        return field.inBounds(y, x);
     }
 
-    private boolean isOutOfBounds(int x, int y) {
-        return !isWithinBounds(x, y);
+    private boolean isOutOfBounds(Board field, int x, int y) {
+        return !isWithinBounds(field, x, y);
     }
 
-    private boolean isWithinCenterArea(int x, int y) {
-        return Math.abs(x - CENTER) + Math.abs(y - CENTER) <= 3;
+    // Near the center and not about to be closed in by the narrowing
+    private boolean isWithinCenterArea(Board field, int x, int y, int ship, SafeZone zone) {
+        return Math.abs(x - field.height() / 2) + Math.abs(y - field.width() / 2) <= 3 && zone.isSafe(ship, SafeZone.MARGIN);
     }
 
-    private int[] findNearestCoin(String[][] field, int myX, int myY) {
-        int minDistance = Integer.MAX_VALUE;
-        int[] target = null;
-
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if ("C".equals(field[i][j])) {
-                    int distance = Math.abs(myX - i) + Math.abs(myY - j);
-                    if (distance < minDistance) {
-                        minDistance = distance;
-                        target = new int[] { i, j };
-                    }
-                }
-            }
+    private String getNextMoveTowardsTarget(DistanceField distances, int target) {
+        // First move of the cheapest obstacle-aware route, rotations included
+        int move = distances.firstMove(target);
+        if (move == Moves.NONE || move == Moves.SKIP) {
+            return null; // No valid moves towards target
         }
-        return target;
+        return Moves.name(move);
     }
 
-    private String getNextMoveTowardsTarget(String[][] field, int myX, int myY, int dirIndex, int targetX, int targetY) {
-        // Determine possible directions towards the target
-        int deltaX = targetX - myX;
-        int deltaY = targetY - myY;
-
-        List<Integer> possibleDirections = new ArrayList<>();
-        if (deltaX < 0) possibleDirections.add(0); // North
-        if (deltaX > 0) possibleDirections.add(2); // South
-        if (deltaY > 0) possibleDirections.add(1); // East
-        if (deltaY < 0) possibleDirections.add(3); // West
-
-        // Try each possible direction
-        for (int desiredDirIndex : possibleDirections) {
-            String move = attemptMoveInDirection(field, myX, myY, dirIndex, desiredDirIndex);
-            if (move != null) {
-                return move;
-            }
-        }
-        return null; // No valid moves towards target
-    }
-
-    private String moveToCenter(String[][] field, int myX, int myY, int dirIndex) {
-        // Determine the direction towards the center
-        int deltaX = CENTER - myX;
-        int deltaY = CENTER - myY;
-
-        List<Integer> possibleDirections = new ArrayList<>();
-        if (deltaX < 0) possibleDirections.add(0); // North
-        if (deltaX > 0) possibleDirections.add(2); // South
-        if (deltaY > 0) possibleDirections.add(1); // East
-        if (deltaY < 0) possibleDirections.add(3); // West
-
-        // Prioritize directions that move closer to the center
-        possibleDirections.sort((a, b) -> {
-            int distanceA = Math.abs((myX + dx[a]) - CENTER) + Math.abs((myY + dy[a]) - CENTER);
-            int distanceB = Math.abs((myX + dx[b]) - CENTER) + Math.abs((myY + dy[b]) - CENTER);
-            return Integer.compare(distanceA, distanceB);
-        });
-
-        // Try each possible direction
-        for (int desiredDirIndex : possibleDirections) {
-            String move = attemptMoveInDirection(field, myX, myY, dirIndex, desiredDirIndex);
-            if (move != null) {
-                return move;
-            }
-        }
-        return null;
-    }
-
-    private String attemptMoveInDirection(String[][] field, int myX, int myY, int dirIndex, int desiredDirIndex) {
-        int forwardX = myX + dx[desiredDirIndex];
-        int forwardY = myY + dy[desiredDirIndex];
-
-        if (isOutOfBounds(forwardX, forwardY)) {
-            return null; // Can't move off the board
-        }
-
-        if (isEmpty(field[forwardX][forwardY])) {
-            String rotation = getMinimalRotation(dirIndex, desiredDirIndex);
-            if (rotation != null) {
-                return rotation;
-            } else {
-                // Already facing the desired direction
-                return "M";
-            }
+    private String moveToCenter(Board field, DistanceField distances, SafeZone zone) {
+        // Head for the closest reachable cell of the center area that stays open
+        int target = distances.nearestWithin(field.width() / 2, field.height() / 2, 3, zone, SafeZone.MARGIN);
+        if (target == -1) {
+            target = distances.nearestSafe(zone, SafeZone.MARGIN);
         }
-        return null;
-    }
-
-    private String getMinimalRotation(int currentIndex, int desiredIndex) {
-        int diff = (desiredIndex - currentIndex + 4) % 4;
-        if (diff == 1) {
-            return "R";
-        } else if (diff == 3) {
-            return "L";
-        } else if (diff == 2) {
-            // Turn around
-            return "R";
-        } else {
-            return null; // Already facing the desired direction
+        if (target == -1) {
+            return null;
         }
+        return getNextMoveTowardsTarget(distances, target);
     }
 
     private String getMinimalRotationForEnemyRotation(int currentIndex, int desiredIndex) {
@@ -268,33 +164,33 @@ public class SpaceshipAiV0 {
         }
     }
 
-    private String tryMoveForward(String[][] field, int myX, int myY, int dirIndex) {
+    private String tryMoveForward(Board field, int myX, int myY, int dirIndex) {
         int forwardX = myX + dx[dirIndex];
         int forwardY = myY + dy[dirIndex];
 
-        if (isOutOfBounds(forwardX, forwardY)) {
+        if (isOutOfBounds(field, forwardX, forwardY)) {
             return null; // Can't move off the board
         }
 
-        if (isEmpty(field[forwardX][forwardY])) {
+        if (field.isPassable(at(field, forwardX, forwardY))) {
             return "M";
         } else {
             return null;
         }
     }
 
-    private String findRotationToMove(String[][] field, int myX, int myY, int currentDirIndex) {
+    private String findRotationToMove(Board field, int myX, int myY, int currentDirIndex) {
         for (int i = 1; i <= 3; i++) {
             int newIndex = (currentDirIndex + i) % 4;
 
             int forwardX = myX + dx[newIndex];
             int forwardY = myY + dy[newIndex];
 
-            if (isOutOfBounds(forwardX, forwardY)) {
+            if (isOutOfBounds(field, forwardX, forwardY)) {
                 continue; // Can't move off the board
             }
 
-            if (isEmpty(field[forwardX][forwardY])) {
+            if (field.isPassable(at(field, forwardX, forwardY))) {
                 // Decide whether to rotate left or right
                 int diff = (newIndex - currentDirIndex + 4) % 4;
                 if (diff == 1) {
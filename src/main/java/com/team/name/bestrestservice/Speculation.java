@@ -0,0 +1,94 @@
+package com.team.name.bestrestservice;
+
+import java.util.Arrays;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Moves a game decided ahead of its next tick, for boards it expects to see.
+// Every tick opens a new ticket; guesses made under an older one are never
+// used, so pondering that was cancelled late cannot answer a later tick.
+public final class Speculation {
+
+    // What take returns when nothing was decided ahead for the tick
+    public static final int NOT_PONDERED = -2;
+
+    private static final Guess[] NO_GUESSES = new Guess[0];
+
+    private final AtomicLong ticket = new AtomicLong();
+    private final AtomicReference<Guess[]> guesses = new AtomicReference<>(NO_GUESSES);
+    private volatile Future<?> task;
+
+    private static final class Guess {
+        final long ticket;
+        final Board board;
+        final int narrowingIn;
+        final int version;
+        final int move;
+
+        Guess(long ticket, Board board, int narrowingIn, int version, int move) {
+            this.ticket = ticket;
+            this.board = board;
+            this.narrowingIn = narrowingIn;
+            this.version = version;
+            this.move = move;
+        }
+    }
+
+    // Ticket for pondering the tick after the one just answered
+    public long ticket() {
+        return ticket.get();
+    }
+
+    public boolean current(long ticket) {
+        return this.ticket.get() == ticket;
+    }
+
+    public void started(Future<?> task) {
+        this.task = task;
+    }
+
+    // Keeps a decision for a board the next tick may bring; at most limit
+    // guesses are kept per game
+    public void offer(long ticket, Board board, int narrowingIn, int version, int move, int limit) {
+        Guess guess = new Guess(ticket, board, narrowingIn, version, move);
+        Guess[] current;
+        Guess[] next;
+        do {
+            current = guesses.get();
+            if (!current(ticket) || current.length >= limit) {
+                return;
+            }
+            next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = guess;
+        } while (!guesses.compareAndSet(current, next));
+    }
+
+    public int guesses() {
+        return guesses.get().length;
+    }
+
+    // Stops any pondering, then returns the move decided ahead for this
+    // board, countdown and engine version, Moves.NONE when none of the
+    // guesses matches, or NOT_PONDERED
+    public int take(Board board, int narrowingIn, int version) {
+        long expected = ticket.getAndIncrement();
+        Future<?> running = task;
+        if (running != null) {
+            running.cancel(true);
+            task = null;
+        }
+        Guess[] made = guesses.getAndSet(NO_GUESSES);
+        boolean pondered = false;
+        for (Guess guess : made) {
+            if (guess.ticket != expected) {
+                continue;
+            }
+            pondered = true;
+            if (guess.version == version && guess.narrowingIn == narrowingIn && guess.board.sameCells(board)) {
+                return guess.move;
+            }
+        }
+        return pondered ? Moves.NONE : NOT_PONDERED;
+    }
+}
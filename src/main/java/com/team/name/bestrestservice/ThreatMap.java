@@ -0,0 +1,134 @@
+package com.team.name.bestrestservice;
+
+public final class ThreatMap {
+
+    public static final int RANGE = 4;
+    // Boards up to this many cells get lookup tables; on larger ones filling
+    // them would cost more than walking the few rays the engines ask about
+    public static final int TABLE_CELLS = 64 * 64;
+
+    private static final Scratch<ThreatMap> SCRATCH = new Scratch<>(ThreatMap::new);
+
+    // Per (cell, heading): how many cells a shot covers before an asteroid or
+    // the edge stops it, and which of those hold an enemy (bit d-1 for the
+    // cell d steps away)
+    private byte[] reach = new byte[Board.CELLS * 4];
+    private byte[] targets = new byte[Board.CELLS * 4];
+    private boolean tabled;
+    private Board board;
+
+    // The thread's map for this board, built on first use. Each thread has
+    // one map, rebuilt in place when it is asked about another board, so a
+    // map taken from here must not be kept past the next call for a
+    // different board; use compute on a map of its own to keep one longer.
+    // On a virtual thread the map is not handed back; requests get theirs
+    // from GameStatus.getThreats, which is.
+    public static ThreatMap of(Board board) {
+        ThreatMap map = SCRATCH.acquire();
+        if (map.board != board) {
+            map.compute(board);
+        }
+        return map;
+    }
+
+    // A map for the caller until release, not yet computed
+    public static ThreatMap acquire() {
+        return SCRATCH.acquire();
+    }
+
+    public static void release(ThreatMap map) {
+        SCRATCH.release(map);
+    }
+
+    public ThreatMap compute(Board board) {
+        this.board = board;
+        int cells = board.cellCount();
+        tabled = cells <= TABLE_CELLS;
+        if (!tabled) {
+            return this;
+        }
+        if (reach.length < cells * 4) {
+            reach = new byte[cells * 4];
+            targets = new byte[cells * 4];
+        }
+        // Walking against the heading means the cell ahead is always done
+        // first, so each entry extends its neighbour's in one step
+        for (int heading = 0; heading < 4; heading++) {
+            boolean forward = heading == Board.NORTH || heading == Board.WEST;
+            for (int i = 0; i < cells; i++) {
+                int cell = forward ? i : cells - 1 - i;
+                int state = cell << 2 | heading;
+                int ahead = board.step(cell, heading);
+                if (ahead == -1 || board.is(ahead, Board.ASTEROID)) {
+                    reach[state] = 0;
+                    targets[state] = 0;
+                } else {
+                    int next = ahead << 2 | heading;
+                    reach[state] = (byte) Math.min(RANGE, reach[next] + 1);
+                    int mask = targets[next] << 1 | (board.is(ahead, Board.ENEMY) ? 1 : 0);
+                    targets[state] = (byte) (mask & ((1 << RANGE) - 1));
+                }
+            }
+        }
+        return this;
+    }
+
+    public Board board() {
+        return board;
+    }
+
+    // Cells a shot from cell along heading passes over
+    public int reach(int cell, int heading) {
+        if (tabled) {
+            return reach[cell << 2 | heading];
+        }
+        int current = cell;
+        for (int d = 0; d < RANGE; d++) {
+            current = board.step(current, heading);
+            if (current == -1 || board.is(current, Board.ASTEROID)) {
+                return d;
+            }
+        }
+        return RANGE;
+    }
+
+    private int targets(int cell, int heading) {
+        if (tabled) {
+            return targets[cell << 2 | heading];
+        }
+        int mask = 0;
+        int current = cell;
+        for (int d = 0; d < RANGE; d++) {
+            current = board.step(current, heading);
+            if (current == -1 || board.is(current, Board.ASTEROID)) {
+                break;
+            }
+            if (board.is(current, Board.ENEMY)) {
+                mask |= 1 << d;
+            }
+        }
+        return mask;
+    }
+
+    // True if a shot from cell along heading would pass over some enemy
+    public boolean canHit(int cell, int heading) {
+        return targets(cell, heading) != 0;
+    }
+
+    // True if a shot from cell along heading would pass over the given cell
+    // and an enemy stands there
+    public boolean canHit(int cell, int heading, int target) {
+        int dx = board.x(target) - board.x(cell);
+        int dy = board.y(target) - board.y(cell);
+        int distance = dx * Board.dx(heading) + dy * Board.dy(heading);
+        if (distance < 1 || distance > RANGE || dx != distance * Board.dx(heading) || dy != distance * Board.dy(heading)) {
+            return false;
+        }
+        return (targets(cell, heading) & 1 << (distance - 1)) != 0;
+    }
+
+    // Enemies a shot from cell along heading would pass over
+    public int hits(int cell, int heading) {
+        return Integer.bitCount(targets(cell, heading));
+    }
+}
@@ -0,0 +1,43 @@
+package com.team.name.bestrestservice;
+
+public final class Zobrist {
+
+    // Every encoded cell byte fits in six bits
+    private static final int VALUES = 64;
+    // Fixed seed so hashes are stable across restarts and instances
+    private static final long SEED = 0x5EED_2024L;
+
+    private Zobrist() {
+    }
+
+    // Key for a cell holding the encoded value; empty cells hash to nothing.
+    // Keys are mixed on the fly rather than tabled, as a table for the
+    // largest boards would run to over a hundred megabytes.
+    public static long key(int cell, byte value) {
+        return value == Board.EMPTY ? 0L : mix(SEED, (long) cell * VALUES + (value & (VALUES - 1)));
+    }
+
+    // SplitMix64 of the index'th step from seed: distinct, well spread keys
+    // for any number of indices
+    public static long mix(long seed, long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Hash of everything on the board except our own ship, which search
+    // states hash separately as they move it around. Both dimensions go in
+    // too: a cell index means another square on a board of another width,
+    // and boards that differ only in height would otherwise hash alike.
+    public static long hashWithoutPlayer(Board board) {
+        long hash = mix(~SEED, (long) board.width() * (Board.MAX_SIZE + 1) + board.height());
+        int player = board.player();
+        for (int i = 0; i < board.cellCount(); i++) {
+            if (i != player) {
+                hash ^= key(i, board.cell(i));
+            }
+        }
+        return hash;
+    }
+}
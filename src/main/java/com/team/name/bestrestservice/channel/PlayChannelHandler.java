@@ -0,0 +1,105 @@
+package com.team.name.bestrestservice.channel;
+
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.Moves;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.routing.MoveDispatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+// One connection plays one game tick by tick. Frames are big-endian:
+//
+//   FULL   0x01, int gameId, int narrowingIn, short width, short height,
+//          width x height cell bytes in row-major order
+//   DELTA  0x02, int narrowingIn, int count, count x (int index, byte cell)
+//
+// Cell bytes use Board's encoding. A delta applies to the last board of the
+// connection and its indices must be ascending. Each frame is answered with a
+// single byte: the Moves code (0 = skip), or RESYNC when the frame could not be
+// applied, after which the client has to send a FULL frame again. A frame
+// that is shorter or longer than its header says is not applied.
+@Component
+public class PlayChannelHandler extends BinaryWebSocketHandler {
+
+    public static final byte FULL = 0x01;
+    public static final byte DELTA = 0x02;
+    public static final byte RESYNC = 0x7F;
+
+    private static final String STATE = PlayChannelHandler.class.getName();
+
+    private final MoveDispatcher dispatcher;
+
+    public PlayChannelHandler(MoveDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    // Per-connection state; a connection's frames are handled one at a time
+    private static final class ChannelState {
+        int gameId;
+        Board board;
+        int[] indices = new int[Board.CELLS];
+        byte[] changes = new byte[Board.CELLS];
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        session.getAttributes().put(STATE, new ChannelState());
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws IOException {
+        ChannelState state = (ChannelState) session.getAttributes().get(STATE);
+        byte reply;
+        try {
+            SpaceshipAI.GameStatus gameStatus = read(state, message.getPayload());
+            reply = gameStatus == null ? RESYNC : (byte) Moves.of(dispatcher.decide(gameStatus));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            state.board = null;
+            reply = RESYNC;
+        }
+        session.sendMessage(new BinaryMessage(new byte[]{reply}));
+    }
+
+    private static SpaceshipAI.GameStatus read(ChannelState state, ByteBuffer in) {
+        byte type = in.get();
+        if (type == FULL) {
+            state.board = null;
+            state.gameId = in.getInt();
+            int narrowingIn = in.getInt();
+            int width = in.getShort() & 0xFFFF;
+            int height = in.getShort() & 0xFFFF;
+            if (in.remaining() != width * height) {
+                throw new IllegalArgumentException("Frame holds " + in.remaining() + " cells for a " + width + "x" + height + " board");
+            }
+            state.board = Board.read(in, width, height);
+            return new SpaceshipAI.GameStatus(state.board, narrowingIn, state.gameId);
+        }
+        if (type != DELTA || state.board == null) {
+            return null;
+        }
+        int narrowingIn = in.getInt();
+        int count = in.getInt();
+        if (count < 0 || count > state.board.cellCount()) {
+            throw new IllegalArgumentException("Delta changes more cells than the board has");
+        }
+        if (in.remaining() != count * 5) {
+            throw new IllegalArgumentException("Frame does not hold " + count + " changes");
+        }
+        if (state.indices.length < count) {
+            state.indices = new int[state.board.cellCount()];
+            state.changes = new byte[state.board.cellCount()];
+        }
+        for (int i = 0; i < count; i++) {
+            state.indices[i] = in.getInt();
+            state.changes[i] = in.get();
+        }
+        state.board = state.board.withChanges(state.indices, state.changes, count);
+        return new SpaceshipAI.GameStatus(state.board, narrowingIn, state.gameId);
+    }
+}
@@ -0,0 +1,73 @@
+package com.team.name.bestrestservice.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.apache.tomcat.util.threads.TaskQueue;
+import org.apache.tomcat.util.threads.TaskThreadFactory;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Opt-in: serve requests on virtual threads instead of Tomcat's platform pool.
+// Needs a Java 21 runtime; the build still targets 17, so the executor is
+// looked up reflectively. On Java 17 the flag gets a fixed pool of
+// server.request-threads platform threads instead, started up front: the
+// decisions are CPU bound, so threads beyond a couple per core only queue on
+// the cores and each builds its own scratch space. Uses the property name
+// Spring Boot 3.2 adopted, so upgrading needs no config change.
+//
+// The flag is read when the customizer runs rather than through
+// @ConditionalOnProperty, which -Pcds would evaluate once at build time.
+@Configuration
+public class VirtualThreadsConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfiguration.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> requestExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${server.request-threads:0}") int requestThreads) {
+        return protocolHandler -> {
+            if (!virtualThreads) {
+                return;
+            }
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            if (executor != null) {
+                log.info("Serving requests on virtual threads");
+            } else {
+                int threads = requestThreads > 0 ? requestThreads : Runtime.getRuntime().availableProcessors() * 2;
+                log.info("Java {} has no virtual threads; serving requests on {} platform threads",
+                        Runtime.version().feature(), threads);
+                executor = newFixedRequestExecutor(threads);
+            }
+            protocolHandler.setExecutor(executor);
+        };
+    }
+
+    // Tomcat's own pool type, so connections queue the way they do on the
+    // default pool; it starts its core threads on creation
+    private static ExecutorService newFixedRequestExecutor(int threads) {
+        TaskQueue queue = new TaskQueue();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue,
+                new TaskThreadFactory("request-", true, Thread.NORM_PRIORITY));
+        queue.setParent(executor);
+        return executor;
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.team.name.bestrestservice.config;
+
+import com.team.name.bestrestservice.channel.PlayChannelHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfiguration implements WebSocketConfigurer {
+
+    private final PlayChannelHandler playChannelHandler;
+    private final String[] allowedOrigins;
+
+    public WebSocketConfiguration(PlayChannelHandler playChannelHandler,
+                                  @Value("${channel.allowed-origins:}") String[] allowedOrigins) {
+        this.playChannelHandler = playChannelHandler;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    // Game clients send no Origin header and are always let in; browsers only
+    // from the same origin or one listed in channel.allowed-origins
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(playChannelHandler, "/play").setAllowedOrigins(allowedOrigins);
+    }
+}
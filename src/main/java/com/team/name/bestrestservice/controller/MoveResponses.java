@@ -0,0 +1,73 @@
+package com.team.name.bestrestservice.controller;
+
+import com.team.name.bestrestservice.Moves;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Every /move answer is one of five bodies, so they are rendered once up front
+final class MoveResponses {
+
+    private static final byte[][] BODIES = bodies();
+    private static final List<ResponseEntity<byte[]>> RESPONSES = build();
+    private static final ResponseEntity<byte[]> RESYNC = ResponseEntity.status(HttpStatus.CONFLICT)
+            .body("{\"resync\":true}".getBytes(StandardCharsets.UTF_8));
+
+    private MoveResponses() {
+    }
+
+    static ResponseEntity<byte[]> of(String move) {
+        return RESPONSES.get(Moves.of(move));
+    }
+
+    static ResponseEntity<byte[]> of(int move) {
+        return RESPONSES.get(move);
+    }
+
+    // Tells a /move/delta client to send the full board through /move
+    static ResponseEntity<byte[]> resync() {
+        return RESYNC;
+    }
+
+    // A /moves answer is the same bodies joined into a JSON array
+    static ResponseEntity<byte[]> ofAll(String[] moves) {
+        int length = 2 + Math.max(moves.length - 1, 0);
+        for (String move : moves) {
+            length += BODIES[Moves.of(move)].length;
+        }
+        byte[] out = new byte[length];
+        int offset = 0;
+        out[offset++] = '[';
+        for (int i = 0; i < moves.length; i++) {
+            if (i > 0) {
+                out[offset++] = ',';
+            }
+            byte[] body = BODIES[Moves.of(moves[i])];
+            System.arraycopy(body, 0, out, offset, body.length);
+            offset += body.length;
+        }
+        out[offset] = ']';
+        return ResponseEntity.ok(out);
+    }
+
+    private static byte[][] bodies() {
+        byte[][] bodies = new byte[Moves.COUNT][];
+        for (int move = 0; move < Moves.COUNT; move++) {
+            String name = Moves.name(move);
+            String body = name == null ? "{\"move\":null}" : "{\"move\":\"" + name + "\"}";
+            bodies[move] = body.getBytes(StandardCharsets.UTF_8);
+        }
+        return bodies;
+    }
+
+    private static List<ResponseEntity<byte[]>> build() {
+        List<ResponseEntity<byte[]>> responses = new ArrayList<>(Moves.COUNT);
+        for (int move = 0; move < Moves.COUNT; move++) {
+            responses.add(ResponseEntity.ok(BODIES[move]));
+        }
+        return List.copyOf(responses);
+    }
+}
@@ -1,7 +1,18 @@
 package com.team.name.bestrestservice.controller;
 
+import com.team.name.bestrestservice.BoardDelta;
+import com.team.name.bestrestservice.GameSessionCache;
+import com.team.name.bestrestservice.Moves;
 import com.team.name.bestrestservice.SpaceshipAI;
-import com.team.name.bestrestservice.SpaceshipAiV0;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import com.team.name.bestrestservice.routing.BatchMoveExecutor;
+import com.team.name.bestrestservice.routing.EngineRegistry;
+import com.team.name.bestrestservice.routing.LoadGovernor;
+import com.team.name.bestrestservice.routing.MoveDispatcher;
+import com.team.name.bestrestservice.routing.RoutingTable;
+import com.team.name.bestrestservice.routing.VersionRouter;
+import com.team.name.bestrestservice.startup.Warmup;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,34 +21,98 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 public class TaskResolveController {
 
-    private int currentVersion = 1;
+    private final GameSessionCache sessions;
+    private final EngineRegistry engines;
+    private final VersionRouter router;
+    private final MoveDispatcher dispatcher;
+    private final BatchMoveExecutor batch;
+    private final LoadGovernor governor;
+    private final Warmup warmup;
+    private final DecisionMetrics decisionMetrics;
+
+    public TaskResolveController(GameSessionCache sessions, EngineRegistry engines, VersionRouter router,
+                                 MoveDispatcher dispatcher, BatchMoveExecutor batch, LoadGovernor governor,
+                                 Warmup warmup, DecisionMetrics decisionMetrics) {
+        this.sessions = sessions;
+        this.engines = engines;
+        this.router = router;
+        this.dispatcher = dispatcher;
+        this.batch = batch;
+        this.governor = governor;
+        this.warmup = warmup;
+        this.decisionMetrics = decisionMetrics;
+    }
 
     @GetMapping(value = "/healthz", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Map<String, String>> checkHealth() {
+        // Not OK until the engines have been warmed up, so traffic waits for compiled code
+        if (!warmup.isWarm()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Collections.singletonMap("status", "WARMING"));
+        }
         return ResponseEntity.ok(Collections.singletonMap("status", "OK"));
     }
 
+    @GetMapping(value = "/metrics", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(decisionMetrics.snapshot());
+        metrics.put("version", router.table().getDefaultVersion());
+        metrics.put("sessions", sessions.size());
+        metrics.put("load", governor.snapshot());
+        return ResponseEntity.ok(metrics);
+    }
+
 
     @PostMapping(value = "/move", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, String>> move(@RequestBody SpaceshipAI.GameStatus gameStatus) {
-        SpaceshipAI spaceshipAI = new SpaceshipAI();
-        if (currentVersion == 0) {
-            SpaceshipAiV0 spaceshipAI0 = new SpaceshipAiV0();
-            return ResponseEntity.ok(Collections.singletonMap("move", spaceshipAI0.decideMove(gameStatus)));
-        } else {
-            return ResponseEntity.ok(Collections.singletonMap("move", spaceshipAI.decideMove(gameStatus)));
+    public ResponseEntity<byte[]> move(@RequestBody SpaceshipAI.GameStatus gameStatus) {
+        return MoveResponses.of(dispatcher.decide(gameStatus));
+    }
+
+    // Changed cells only, against the board of the game's previous tick
+    @PostMapping(value = "/move/delta", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> moveDelta(@RequestBody BoardDelta delta) {
+        int move = dispatcher.decide(delta);
+        return move == Moves.NONE ? MoveResponses.resync() : MoveResponses.of(move);
+    }
+
+    // Many games in one round-trip; moves come back in the order of the games
+    @PostMapping(value = "/moves", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> moves(@RequestBody List<SpaceshipAI.GameStatus> games) {
+        if (!batch.accepts(games.size())) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
         }
+        return MoveResponses.ofAll(batch.decideAll(games));
     }
 
     @PostMapping(value = "/changeVersion", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Map<String, Integer>> move(@RequestBody Integer version) {
-        this.currentVersion = version;
-        return ResponseEntity.ok(Collections.singletonMap("version", currentVersion));
+        if (version == null || !engines.contains(version)) {
+            return ResponseEntity.badRequest().build();
+        }
+        RoutingTable table = router.changeDefaultVersion(version);
+        return ResponseEntity.ok(Collections.singletonMap("version", table.getDefaultVersion()));
+    }
+
+    @GetMapping(value = "/routing", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RoutingTable> routing() {
+        return ResponseEntity.ok(router.table());
+    }
+
+    // Replaces the whole table: default version, pinned games and canary slice
+    @PostMapping(value = "/routing", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RoutingTable> routing(@RequestBody RoutingTable table) {
+        if (!table.allVersionsMatch(engines::contains)) {
+            return ResponseEntity.badRequest().build();
+        }
+        router.replace(table);
+        return ResponseEntity.ok(table);
     }
 
 }
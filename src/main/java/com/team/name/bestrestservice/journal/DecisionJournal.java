@@ -0,0 +1,251 @@
+package com.team.name.bestrestservice.journal;
+
+import com.team.name.bestrestservice.Board;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Append-only record of every decision: board, countdown, game, move, engine
+// and latency. Records are copied into a memory-mapped segment, so the
+// request thread never waits on a write call; the OS flushes pages in the
+// background. Writers claim their slot with one atomic add and fill it
+// independently. The next segment is created and mapped ahead on a
+// background thread, so a full one is swapped out without file work on the
+// request thread; the oldest are deleted there too beyond
+// journal.max-segments.
+@Component
+public class DecisionJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(DecisionJournal.class);
+
+    public static final int MAGIC = 0x444A3031; // "DJ01"
+    public static final int HEADER = 16;
+
+    // Record layout, little-endian. The committed flag is written last, so a
+    // reader stops at a slot that was claimed but never filled. It shares an
+    // aligned int with version, move and tier, which are published together
+    // with one release store.
+    public static final int COMMITTED = 0;
+    public static final int VERSION = 1;
+    public static final int MOVE = 2;
+    public static final int TIER = 3;
+    public static final int GAME_ID = 4;
+    public static final int NARROWING_IN = 8;
+    public static final int TIMESTAMP = 12;
+    public static final int LATENCY = 20;
+    public static final int CELLS = 28;
+    public static final int RECORD = CELLS + Board.CELLS + 3;
+
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentBytes;
+    private final int maxSegments;
+    // Only touched on the roller thread once the first segment is open
+    private final Deque<Path> segments = new ArrayDeque<>();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicReference<Segment> current = new AtomicReference<>();
+    private volatile CompletableFuture<Segment> spare;
+    private final ExecutorService roller;
+    private long sequence;
+
+    private static final class Segment {
+        final Path path;
+        final MappedByteBuffer buffer;
+        final AtomicLong next = new AtomicLong(HEADER);
+
+        Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    public DecisionJournal(@Value("${journal.enabled:false}") boolean enabled,
+                           @Value("${journal.dir:journal}") String directory,
+                           @Value("${journal.segment-mb:64}") int segmentMegabytes,
+                           @Value("${journal.max-segments:16}") int maxSegments) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        long bytes = (long) segmentMegabytes << 20;
+        this.segmentBytes = HEADER + (bytes - HEADER) / RECORD * RECORD;
+        this.maxSegments = Math.max(1, maxSegments);
+        this.roller = enabled ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-roller");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        if (enabled) {
+            try {
+                Files.createDirectories(this.directory);
+                try (Stream<Path> existing = Files.list(this.directory)) {
+                    existing.filter(path -> path.getFileName().toString().endsWith(".journal"))
+                            .sorted()
+                            .forEach(segments::add);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Segment first = create();
+            if (first != null) {
+                activated(first);
+            }
+            current.set(first);
+            spare = CompletableFuture.supplyAsync(this::create, roller);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(int gameId, int narrowingIn, Board board, int version, int move, int tier, long latencyNanos) {
+        // Negative game ids are warmup's, which is not a game worth replaying
+        if (!enabled || gameId < 0) {
+            return;
+        }
+        // Records hold a standard board; other sizes are counted as dropped
+        if (board.width() != Board.SIZE || board.height() != Board.SIZE) {
+            dropped.increment();
+            return;
+        }
+        Segment segment = current.get();
+        long offset = segment != null ? segment.next.getAndAdd(RECORD) : segmentBytes;
+        while (offset + RECORD > segmentBytes) {
+            segment = next(segment);
+            if (segment == null) {
+                dropped.increment();
+                return;
+            }
+            offset = segment.next.getAndAdd(RECORD);
+        }
+
+        MappedByteBuffer buffer = segment.buffer;
+        int base = (int) offset;
+        buffer.putInt(base + GAME_ID, gameId);
+        buffer.putInt(base + NARROWING_IN, narrowingIn);
+        buffer.putLong(base + TIMESTAMP, System.currentTimeMillis());
+        buffer.putLong(base + LATENCY, latencyNanos);
+        for (int i = 0; i < Board.CELLS; i++) {
+            buffer.put(base + CELLS + i, board.cell(i));
+        }
+        int head = 1 << COMMITTED * 8 | (version & 0xFF) << VERSION * 8 | (move & 0xFF) << MOVE * 8 | (tier & 0xFF) << TIER * 8;
+        INTS.setRelease(buffer, base + COMMITTED, head);
+    }
+
+    // Swaps the full segment for the one prepared ahead, unless another
+    // writer already has; returns the segment to write to, or null if none
+    // could be created. Only waits when segments fill faster than the
+    // roller thread can create them.
+    private Segment next(Segment full) {
+        Segment latest = current.get();
+        if (latest != full) {
+            return latest;
+        }
+        CompletableFuture<Segment> prepared = spare;
+        if (current.get() != full) {
+            return current.get();
+        }
+        Segment segment = prepared.join();
+        if (segment == null) {
+            // Creating it failed; try again for a later record
+            if (spare == prepared) {
+                spare = CompletableFuture.supplyAsync(this::create, roller);
+            }
+            return null;
+        }
+        if (!current.compareAndSet(full, segment)) {
+            return current.get();
+        }
+        spare = CompletableFuture.supplyAsync(() -> {
+            activated(segment);
+            return create();
+        }, roller);
+        return segment;
+    }
+
+    // Creates and maps a segment file; runs on the roller thread after the first
+    private Segment create() {
+        Path path = directory.resolve(String.format("%013d-%04d.journal", System.currentTimeMillis(), sequence++ % 10000));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, RECORD);
+            buffer.putLong(8, System.currentTimeMillis());
+            return new Segment(path, buffer);
+        } catch (IOException e) {
+            log.warn("Could not open journal segment {}; decisions are not journaled until one opens", path, e);
+            return null;
+        }
+    }
+
+    // Counts a segment in once writers use it and deletes the oldest beyond the limit
+    private void activated(Segment segment) {
+        segments.addLast(segment.path);
+        while (segments.size() > maxSegments) {
+            Path oldest = segments.removeFirst();
+            try {
+                Files.deleteIfExists(oldest);
+            } catch (IOException e) {
+                log.warn("Could not delete journal segment {}", oldest, e);
+            }
+        }
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    // Flushes the segment in use and deletes the one prepared ahead, which
+    // holds no records
+    @PreDestroy
+    public void close() {
+        if (roller == null) {
+            return;
+        }
+        roller.shutdown();
+        try {
+            roller.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Segment segment = current.get();
+        if (segment != null) {
+            segment.buffer.force();
+        }
+        Segment unused = spare.getNow(null);
+        if (unused != null && unused != segment) {
+            try {
+                Files.deleteIfExists(unused.path);
+            } catch (IOException e) {
+                log.warn("Could not delete journal segment {}", unused.path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.team.name.bestrestservice.journal;
+
+import com.team.name.bestrestservice.Board;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Reads what DecisionJournal wrote, oldest segment first
+public final class JournalReader {
+
+    public static final class Entry {
+        public int gameId;
+        public int narrowingIn;
+        public int version;
+        public int move;
+        public int tier;
+        public long timestamp;
+        public long latencyNanos;
+        public Board board;
+    }
+
+    private JournalReader() {
+    }
+
+    // A segment file, or a directory whose segments are read in name order
+    public static void read(Path path, Consumer<Entry> consumer) throws IOException {
+        if (!Files.isDirectory(path)) {
+            readSegment(path, consumer);
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(path)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(".journal"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            readSegment(file, consumer);
+        }
+    }
+
+    private static void readSegment(Path file, Consumer<Entry> consumer) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < DecisionJournal.HEADER || buffer.getInt(0) != DecisionJournal.MAGIC
+                || buffer.getInt(4) != DecisionJournal.RECORD) {
+            throw new IOException(file + " is not a decision journal segment of this version");
+        }
+
+        Entry entry = new Entry();
+        for (int base = DecisionJournal.HEADER; base + DecisionJournal.RECORD <= buffer.limit(); base += DecisionJournal.RECORD) {
+            if (buffer.get(base + DecisionJournal.COMMITTED) == 0) {
+                // Never written, or claimed by a writer that did not finish
+                continue;
+            }
+            entry.version = buffer.get(base + DecisionJournal.VERSION);
+            entry.move = buffer.get(base + DecisionJournal.MOVE);
+            entry.tier = buffer.get(base + DecisionJournal.TIER);
+            entry.gameId = buffer.getInt(base + DecisionJournal.GAME_ID);
+            entry.narrowingIn = buffer.getInt(base + DecisionJournal.NARROWING_IN);
+            entry.timestamp = buffer.getLong(base + DecisionJournal.TIMESTAMP);
+            entry.latencyNanos = buffer.getLong(base + DecisionJournal.LATENCY);
+            ByteBuffer cells = buffer.slice(base + DecisionJournal.CELLS, Board.CELLS);
+            entry.board = Board.read(cells);
+            consumer.accept(entry);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.team.name.bestrestservice.metrics;
+
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.Moves;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public final class DecisionMetrics {
+
+    public enum Phase {
+        // Request body to GameStatus, board encoding included
+        BIND,
+        // Distance flood and route lookups
+        PATH,
+        // Choosing where to aim and whether to fire
+        TARGET,
+        // Lookahead search of SearchAI
+        SEARCH,
+        // Whole decideMove call, as seen by the controller
+        DECIDE
+    }
+
+    public static final int VERSIONS = 3;
+
+    // Decisions are also timed per board complexity, bucketed by enemy count
+    private static final int[] ENEMY_BUCKETS = {0, 3, 6, 10};
+    private static final String[] ENEMY_LABELS = {"0-2", "3-5", "6-9", "10+"};
+
+    private final LatencyHistogram[] phases = new LatencyHistogram[Phase.values().length];
+    private final LatencyHistogram[] byEnemies = new LatencyHistogram[ENEMY_BUCKETS.length];
+    private final LongAdder[] moves = new LongAdder[VERSIONS * Moves.COUNT];
+    private final LongAdder batchFallbacks = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+    private final LongAdder ponderHits = new LongAdder();
+    private final LongAdder ponderMisses = new LongAdder();
+
+    public DecisionMetrics() {
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < byEnemies.length; i++) {
+            byEnemies[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = new LongAdder();
+        }
+    }
+
+    public void record(Phase phase, long nanos) {
+        phases[phase.ordinal()].record(nanos);
+    }
+
+    public void recordDecision(int version, Board board, String move, long nanos) {
+        phases[Phase.DECIDE.ordinal()].record(nanos);
+        byEnemies[enemyBucket(board.enemyCount())].record(nanos);
+        if (version >= 0 && version < VERSIONS) {
+            moves[version * Moves.COUNT + Moves.of(move)].increment();
+        }
+    }
+
+    // A /moves item turned away, or dropped before it started, that got the fallback move
+    public void recordBatchFallback() {
+        batchFallbacks.increment();
+    }
+
+    // A /move/delta that did not apply to the cached board
+    public void recordResync() {
+        resyncs.increment();
+    }
+
+    // A request for a tick that was pondered, and whether its board was foreseen
+    public void recordPonder(boolean hit) {
+        (hit ? ponderHits : ponderMisses).increment();
+    }
+
+    // Drops everything recorded so far, such as the decisions warmup made
+    public void reset() {
+        for (LatencyHistogram histogram : phases) {
+            histogram.reset();
+        }
+        for (LatencyHistogram histogram : byEnemies) {
+            histogram.reset();
+        }
+        for (LongAdder count : moves) {
+            count.reset();
+        }
+        batchFallbacks.reset();
+        resyncs.reset();
+        ponderHits.reset();
+        ponderMisses.reset();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> phaseStats = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            phaseStats.put(phase.name().toLowerCase(), stats(phases[phase.ordinal()]));
+        }
+        Map<String, Object> enemyStats = new LinkedHashMap<>();
+        for (int i = 0; i < byEnemies.length; i++) {
+            enemyStats.put(ENEMY_LABELS[i], stats(byEnemies[i]));
+        }
+        Map<String, Object> moveCounts = new LinkedHashMap<>();
+        for (int version = 0; version < VERSIONS; version++) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (int move = 0; move < Moves.COUNT; move++) {
+                String name = Moves.name(move);
+                counts.put(name == null ? "null" : name, moves[version * Moves.COUNT + move].sum());
+            }
+            moveCounts.put("v" + version, counts);
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("phases", phaseStats);
+        snapshot.put("decideByEnemies", enemyStats);
+        snapshot.put("moves", moveCounts);
+        snapshot.put("batchFallbacks", batchFallbacks.sum());
+        snapshot.put("deltaResyncs", resyncs.sum());
+        snapshot.put("ponderHits", ponderHits.sum());
+        snapshot.put("ponderMisses", ponderMisses.sum());
+        return snapshot;
+    }
+
+    private static Map<String, Object> stats(LatencyHistogram histogram) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", histogram.count());
+        stats.put("meanMicros", micros(histogram.mean()));
+        stats.put("p50Micros", micros(histogram.percentile(0.50)));
+        stats.put("p90Micros", micros(histogram.percentile(0.90)));
+        stats.put("p99Micros", micros(histogram.percentile(0.99)));
+        stats.put("p999Micros", micros(histogram.percentile(0.999)));
+        stats.put("maxMicros", micros(histogram.max()));
+        return stats;
+    }
+
+    private static double micros(double nanos) {
+        return Math.round(nanos / 100.0) / 10.0;
+    }
+
+    private static int enemyBucket(int enemies) {
+        int bucket = 0;
+        while (bucket + 1 < ENEMY_BUCKETS.length && enemies >= ENEMY_BUCKETS[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+}
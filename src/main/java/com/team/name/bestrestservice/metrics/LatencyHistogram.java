@@ -0,0 +1,85 @@
+package com.team.name.bestrestservice.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Log-linear buckets in the spirit of HdrHistogram: each power of two is split
+// into 16 linear sub-buckets, so any recorded value is off by at most ~6%
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    // Not atomic against concurrent records; meant for when nothing is recording
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    // Upper bound of the bucket holding the given quantile
+    public long percentile(double quantile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int index(long value) {
+        if (value < SUB) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB - 1);
+        return (exponent - SUB_BITS + 1) * SUB + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB) {
+            return index;
+        }
+        int exponent = index / SUB - 1 + SUB_BITS;
+        long sub = index % SUB;
+        return ((SUB + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+}
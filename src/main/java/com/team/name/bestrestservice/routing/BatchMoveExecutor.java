@@ -0,0 +1,116 @@
+package com.team.name.bestrestservice.routing;
+
+import com.team.name.bestrestservice.DecisionEngine;
+import com.team.name.bestrestservice.Moves;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+@Component
+public class BatchMoveExecutor {
+
+    private final MoveDispatcher dispatcher;
+    private final ThreadPoolExecutor executor;
+    private final long itemDeadlineNanos;
+    private final int maxGames;
+    private final DecisionMetrics metrics;
+
+    // Cheap enough to answer late items with, in parallel once the deadline passes
+    private final DecisionEngine fallback;
+
+    public BatchMoveExecutor(MoveDispatcher dispatcher, DecisionMetrics metrics,
+                             @Value("${batch.threads:0}") int threads,
+                             @Value("${batch.item-deadline-ms:100}") long itemDeadlineMillis,
+                             @Value("${batch.queue:1024}") int queue,
+                             @Value("${batch.max-games:256}") int maxGames) {
+        int poolThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.dispatcher = dispatcher;
+        // Items past a full queue are rejected and answered with the fallback move
+        this.executor = new ThreadPoolExecutor(poolThreads, poolThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue));
+        this.itemDeadlineNanos = TimeUnit.MILLISECONDS.toNanos(itemDeadlineMillis);
+        this.maxGames = maxGames;
+        this.metrics = metrics;
+        this.fallback = new SpaceshipAI(metrics);
+    }
+
+    // Larger batches are turned away whole rather than queued
+    public boolean accepts(int games) {
+        return games <= maxGames;
+    }
+
+    // Moves in the order of the games. Every item has the same deadline counted
+    // from when the batch arrived, which its decision is held to. An item whose
+    // tick has not started by then is dropped, leaving its session as it was,
+    // and gets the fallback move; the rest of the batch does not wait for it.
+    public String[] decideAll(List<SpaceshipAI.GameStatus> games) {
+        long deadline = System.nanoTime() + itemDeadlineNanos;
+        List<Future<Integer>> futures = new ArrayList<>(games.size());
+        for (SpaceshipAI.GameStatus gameStatus : games) {
+            gameStatus.setDeadline(deadline);
+            try {
+                futures.add(executor.submit(() -> dispatcher.decideItem(gameStatus)));
+            } catch (RejectedExecutionException e) {
+                futures.add(null);
+            }
+        }
+
+        int[] moves = new int[futures.size()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = await(futures.get(i), deadline);
+        }
+        String[] names = new String[moves.length];
+        IntStream.range(0, moves.length).parallel().forEach(i -> {
+            if (moves[i] == Moves.NONE) {
+                metrics.recordBatchFallback();
+                // A fresh status, as a dropped item never got a session
+                SpaceshipAI.GameStatus gameStatus = games.get(i);
+                names[i] = fallback.decideMove(new SpaceshipAI.GameStatus(gameStatus.getBoard(),
+                        gameStatus.getNarrowingIn(), gameStatus.getGameId()));
+            } else {
+                names[i] = Moves.name(moves[i]);
+            }
+        });
+        return names;
+    }
+
+    // The item's Moves code, or Moves.NONE when it needs the fallback: turned
+    // away by the full queue (a null future), never started, or failed. One
+    // that started is held to the deadline by the dispatcher, so is waited for.
+    private int await(Future<Integer> future, long deadline) {
+        if (future == null) {
+            return Moves.NONE;
+        }
+        try {
+            try {
+                return future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return future.cancel(false) ? Moves.NONE : future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) {
+            // Falls back like a dropped item
+        }
+        return Moves.NONE;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
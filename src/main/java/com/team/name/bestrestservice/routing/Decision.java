@@ -0,0 +1,128 @@
+package com.team.name.bestrestservice.routing;
+
+import com.team.name.bestrestservice.Moves;
+
+import java.util.concurrent.TimeUnit;
+
+// One tick's answer, raced between the thread deciding it and the deadline.
+// The decider offers the rule-based move as soon as it has it. Once the
+// routed engine answers, the decider claims the tick and completes it after
+// recording the move. A request still waiting when the deadline passes, with
+// the tick not yet claimed, answers with the offered move; the decider's claim
+// is then refused, so it records what the client was actually sent.
+// A droppable tick that has not started by the deadline is dropped instead:
+// it leaves the session as it was and the request answers Moves.NONE.
+final class Decision {
+
+    private final boolean droppable;
+    private final long dropAt;
+    private boolean started;
+    private boolean dropped;
+    private int fallback = Moves.NONE;
+    private boolean offered;
+    private boolean claimed;
+    private boolean taken;
+    private int move = Moves.NONE;
+    private boolean completed;
+    private Throwable failure;
+
+    Decision() {
+        this(false, 0);
+    }
+
+    private Decision(boolean droppable, long dropAt) {
+        this.droppable = droppable;
+        this.dropAt = dropAt;
+    }
+
+    static Decision droppable(long deadline) {
+        return new Decision(true, deadline);
+    }
+
+    // Called by the decider with the game's lock held, before it touches the
+    // session; false when the tick is dropped and must not
+    synchronized boolean start() {
+        if (!dropped && droppable && System.nanoTime() - dropAt >= 0) {
+            dropped = true;
+            notifyAll();
+        }
+        started = !dropped;
+        return started;
+    }
+
+    synchronized void offer(int fallback) {
+        this.fallback = fallback;
+        this.offered = true;
+        notifyAll();
+    }
+
+    // False when the request has already answered with the offered move
+    synchronized boolean claim() {
+        if (taken) {
+            return false;
+        }
+        claimed = true;
+        return true;
+    }
+
+    synchronized void complete(int move) {
+        if (taken || completed) {
+            return;
+        }
+        this.move = move;
+        this.completed = true;
+        notifyAll();
+    }
+
+    // The decider broke off; a request still waiting gets the offered move,
+    // or the error when there is none
+    synchronized void fail(Throwable failure) {
+        if (taken || completed) {
+            return;
+        }
+        this.failure = failure;
+        this.completed = true;
+        notifyAll();
+    }
+
+    // The decider's move if it claims the tick by the deadline, otherwise the
+    // offered one as soon as there is one, or Moves.NONE once dropped
+    synchronized int await(long deadline) {
+        boolean interrupted = false;
+        long remaining;
+        while (!completed && !claimed && !dropped && !interrupted && (remaining = deadline - System.nanoTime()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (droppable && !started && !completed) {
+            dropped = true;
+        }
+        while (!completed && !dropped && (claimed || !offered)) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (completed && failure == null) {
+            return move;
+        }
+        if (dropped) {
+            return Moves.NONE;
+        }
+        if (offered) {
+            taken = true;
+            return fallback;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        throw (Error) failure;
+    }
+}
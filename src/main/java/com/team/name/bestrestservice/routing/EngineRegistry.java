@@ -0,0 +1,50 @@
+package com.team.name.bestrestservice.routing;
+
+import com.team.name.bestrestservice.DecisionEngine;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.SpaceshipAiV0;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import com.team.name.bestrestservice.search.SearchAI;
+import com.team.name.bestrestservice.search.SearchPool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// One shared instance per engine version; engines keep no per-request state,
+// so every request and game can reuse them
+@Component
+public class EngineRegistry {
+
+    public static final int V0 = 0;
+    public static final int V1 = 1;
+    public static final int SEARCH = 2;
+
+    private final DecisionEngine[] engines;
+
+    @Autowired
+    public EngineRegistry(SearchPool searchPool, DecisionMetrics metrics,
+                          @Value("${search.time-budget-ms:40}") long searchBudgetMillis) {
+        this.engines = new DecisionEngine[]{
+                new SpaceshipAiV0(metrics),
+                new SpaceshipAI(metrics),
+                new SearchAI(searchBudgetMillis, searchPool, metrics)
+        };
+    }
+
+    // Engines by version, for tests
+    EngineRegistry(DecisionEngine... engines) {
+        this.engines = engines;
+    }
+
+    public boolean contains(int version) {
+        return version >= 0 && version < engines.length;
+    }
+
+    public DecisionEngine get(int version) {
+        return engines[version];
+    }
+
+    public int size() {
+        return engines.length;
+    }
+}
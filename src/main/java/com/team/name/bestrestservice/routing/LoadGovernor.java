@@ -0,0 +1,122 @@
+package com.team.name.bestrestservice.routing;
+
+import com.team.name.bestrestservice.metrics.LatencyHistogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Picks how much engine each request can afford from the number of requests
+// in the dispatcher, waiting on a game lock included, and the p99 of their
+// latency over the last complete window
+@Component
+public class LoadGovernor {
+
+    public enum Tier {
+        // The routed engine, search included
+        FULL,
+        // Search is swapped for the rule-based engine
+        REDUCED,
+        // Only the fallback move that is computed for every request
+        MINIMAL
+    }
+
+    // Share of the deadline the recent p99 may use before stepping down a tier
+    private static final double REDUCED_P99 = 0.5;
+    private static final double MINIMAL_P99 = 0.8;
+
+    private final long deadlineNanos;
+    private final long windowNanos;
+    private final int reducedInFlight;
+    private final int minimalInFlight;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile LatencyHistogram window = new LatencyHistogram();
+    private final AtomicLong windowEnd = new AtomicLong();
+    private volatile long recentP99;
+    private volatile Tier lastTier = Tier.FULL;
+    private final LongAdder[] tierCounts = new LongAdder[Tier.values().length];
+
+    public LoadGovernor(@Value("${decision.deadline-ms:60}") long deadlineMillis,
+                        @Value("${decision.window-ms:1000}") long windowMillis,
+                        @Value("${decision.reduced-in-flight:0}") int reducedInFlight,
+                        @Value("${decision.minimal-in-flight:0}") int minimalInFlight) {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.reducedInFlight = reducedInFlight > 0 ? reducedInFlight : cpus;
+        this.minimalInFlight = minimalInFlight > 0 ? minimalInFlight : cpus * 4;
+        this.windowEnd.set(System.nanoTime() + windowNanos);
+        for (int i = 0; i < tierCounts.length; i++) {
+            tierCounts[i] = new LongAdder();
+        }
+    }
+
+    public long deadlineNanos() {
+        return deadlineNanos;
+    }
+
+    // Registers a decision in flight and returns the tier it should run at;
+    // every enter has to be paired with exit
+    public Tier enter() {
+        int load = inFlight.incrementAndGet();
+        long p99 = recentP99;
+        Tier tier;
+        if (load > minimalInFlight || p99 > deadlineNanos * MINIMAL_P99) {
+            tier = Tier.MINIMAL;
+        } else if (load > reducedInFlight || p99 > deadlineNanos * REDUCED_P99) {
+            tier = Tier.REDUCED;
+        } else {
+            tier = Tier.FULL;
+        }
+        tierCounts[tier.ordinal()].increment();
+        lastTier = tier;
+        return tier;
+    }
+
+    public void exit(long decisionNanos) {
+        inFlight.decrementAndGet();
+        long now = System.nanoTime();
+        long end = windowEnd.get();
+        if (now - end >= 0 && windowEnd.compareAndSet(end, now + windowNanos)) {
+            // A quiet window leaves the last p99 in place rather than reading as zero
+            LatencyHistogram closed = window;
+            window = new LatencyHistogram();
+            if (closed.count() > 0) {
+                recentP99 = closed.percentile(0.99);
+            }
+        }
+        window.record(decisionNanos);
+    }
+
+    // Forgets the latency window and tier counts, so the decisions warmup made
+    // neither hold a tier down nor show up in /metrics
+    public void reset() {
+        window = new LatencyHistogram();
+        windowEnd.set(System.nanoTime() + windowNanos);
+        recentP99 = 0;
+        lastTier = Tier.FULL;
+        for (LongAdder count : tierCounts) {
+            count.reset();
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("tier", lastTier.name().toLowerCase());
+        snapshot.put("inFlight", inFlight.get());
+        snapshot.put("recentP99Micros", recentP99 / 1000);
+        snapshot.put("deadlineMicros", deadlineNanos / 1000);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Tier tier : Tier.values()) {
+            counts.put(tier.name().toLowerCase(), tierCounts[tier.ordinal()].sum());
+        }
+        snapshot.put("decisionsByTier", counts);
+        return snapshot;
+    }
+}
@@ -0,0 +1,208 @@
+package com.team.name.bestrestservice.routing;
+
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.BoardDelta;
+import com.team.name.bestrestservice.GameSession;
+import com.team.name.bestrestservice.GameSessionCache;
+import com.team.name.bestrestservice.Moves;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.journal.DecisionJournal;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// One tick of one game: session bookkeeping, version routing and the decision
+@Component
+public class MoveDispatcher {
+
+    private final GameSessionCache sessions;
+    private final EngineRegistry engines;
+    private final VersionRouter router;
+    private final LoadGovernor governor;
+    private final DecisionJournal journal;
+    private final Ponderer ponderer;
+    private final DecisionMetrics metrics;
+    private final ThreadPoolExecutor deciders;
+
+    public MoveDispatcher(GameSessionCache sessions, EngineRegistry engines, VersionRouter router,
+                          LoadGovernor governor, DecisionJournal journal, Ponderer ponderer,
+                          DecisionMetrics metrics,
+                          @Value("${decision.engine-threads:0}") int engineThreads) {
+        this.sessions = sessions;
+        this.engines = engines;
+        this.router = router;
+        this.governor = governor;
+        this.journal = journal;
+        this.ponderer = ponderer;
+        this.metrics = metrics;
+        int threads = engineThreads > 0 ? engineThreads : Runtime.getRuntime().availableProcessors() * 4;
+        AtomicInteger created = new AtomicInteger();
+        // Past the thread limit, or once shut down, a tick is decided on the
+        // request thread with no watch on its deadline
+        this.deciders = new ThreadPoolExecutor(0, threads, 30, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "decider-" + created.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, (runnable, executor) -> runnable.run());
+    }
+
+    public String decide(SpaceshipAI.GameStatus gameStatus) {
+        long received = System.nanoTime();
+        gameStatus.setDeadline(received + governor.deadlineNanos());
+        return Moves.name(decide(gameStatus, received, new Decision()));
+    }
+
+    // A /moves item, due by the deadline the batch set on its status. A tick
+    // that has not started by then is dropped without touching the session
+    // and answers Moves.NONE, for the batch to send its fallback instead.
+    int decideItem(SpaceshipAI.GameStatus gameStatus) {
+        return decide(gameStatus, System.nanoTime(), Decision.droppable(gameStatus.getDeadline()));
+    }
+
+    private int decide(SpaceshipAI.GameStatus gameStatus, long received, Decision decision) {
+        LoadGovernor.Tier tier = governor.enter();
+        try {
+            run(routesToEngine(gameStatus.getGameId(), tier), decision, () -> {
+                GameSession session = sessions.lock(gameStatus.getGameId());
+                try {
+                    if (decision.start()) {
+                        decideLocked(session, gameStatus, tier, decision);
+                    }
+                } finally {
+                    gameStatus.release();
+                    session.lock().unlock();
+                }
+            });
+            return decision.await(gameStatus.getDeadline());
+        } finally {
+            governor.exit(System.nanoTime() - received);
+        }
+    }
+
+    // Applies the delta to the game's last board. Returns the Moves code, or
+    // Moves.NONE when there is no board to patch or the result fails the
+    // checksum; the client then has to send the full board again.
+    public int decide(BoardDelta delta) {
+        long received = System.nanoTime();
+        LoadGovernor.Tier tier = governor.enter();
+        try {
+            Decision decision = new Decision();
+            run(routesToEngine(delta.getGameId(), tier), decision, () -> {
+                GameSession session = sessions.lock(delta.getGameId());
+                try {
+                    Board base = session.current();
+                    Board board;
+                    try {
+                        board = base != null ? delta.applyTo(base) : null;
+                    } catch (IllegalArgumentException e) {
+                        board = null;
+                    }
+                    if (board == null || !delta.matches(board)) {
+                        metrics.recordResync();
+                        decision.complete(Moves.NONE);
+                        return;
+                    }
+                    SpaceshipAI.GameStatus gameStatus = new SpaceshipAI.GameStatus(board, delta.getNarrowingIn(), delta.getGameId());
+                    gameStatus.setDeadline(received + governor.deadlineNanos());
+                    try {
+                        decideLocked(session, gameStatus, tier, decision);
+                    } finally {
+                        gameStatus.release();
+                    }
+                } finally {
+                    session.lock().unlock();
+                }
+            });
+            return decision.await(received + governor.deadlineNanos());
+        } finally {
+            governor.exit(System.nanoTime() - received);
+        }
+    }
+
+    // Whether the game's tick will run an engine other than the rule-based one
+    private boolean routesToEngine(int gameId, LoadGovernor.Tier tier) {
+        int version = router.route(gameId);
+        return version != EngineRegistry.V1 && !rulesOut(version, tier);
+    }
+
+    private static boolean rulesOut(int version, LoadGovernor.Tier tier) {
+        return tier == LoadGovernor.Tier.MINIMAL || (tier == LoadGovernor.Tier.REDUCED && version == EngineRegistry.SEARCH);
+    }
+
+    // A tick that may run the routed engine is decided on a decider thread,
+    // which holds the game's lock and all of its state, so the request thread
+    // can answer with the fallback once the deadline passes; the rest are
+    // decided on the request thread
+    private void run(boolean watched, Decision decision, Runnable tick) {
+        Runnable guarded = () -> {
+            try {
+                tick.run();
+            } catch (RuntimeException | Error e) {
+                decision.fail(e);
+            }
+        };
+        if (watched) {
+            deciders.execute(guarded);
+        } else {
+            guarded.run();
+        }
+    }
+
+    // A move decided ahead between ticks answers at once. Otherwise the
+    // rule-based move is computed first and offered as the answer should the
+    // routed engine throw or miss the deadline; a routed engine that answers
+    // SKIP keeps its answer. The deadline on the status counts from when the
+    // request reached the dispatcher, lock wait included. Whatever the request
+    // answered with is what is recorded, journaled and pondered on.
+    private void decideLocked(GameSession session, SpaceshipAI.GameStatus gameStatus,
+                              LoadGovernor.Tier tier, Decision decision) {
+        int routed = router.route(gameStatus.getGameId());
+        int pondered = ponderer.take(session, gameStatus.getBoard(), gameStatus.getNarrowingIn(), routed);
+        // Ticks of one game are handled one at a time against its cached state
+        session.advance(gameStatus.getBoard(), gameStatus.getNarrowingIn());
+        gameStatus.attach(session);
+
+        long started = System.nanoTime();
+        int version = routed;
+        String move;
+        if (pondered != Moves.NONE) {
+            move = Moves.name(pondered);
+        } else {
+            String fallback = engines.get(EngineRegistry.V1).decideMove(gameStatus);
+            decision.offer(Moves.of(fallback));
+            // Set when the routed engine is ruled out, throws, or answers too late
+            boolean fellBack = version == EngineRegistry.V1 || rulesOut(version, tier)
+                    || System.nanoTime() - gameStatus.getDeadline() >= 0;
+            move = null;
+            if (!fellBack) {
+                try {
+                    move = engines.get(version).decideMove(gameStatus);
+                    fellBack = !decision.claim();
+                } catch (RuntimeException e) {
+                    fellBack = true;
+                }
+            }
+            if (fellBack) {
+                version = EngineRegistry.V1;
+                move = fallback;
+            }
+        }
+        long nanos = System.nanoTime() - started;
+        metrics.recordDecision(version, gameStatus.getBoard(), move, nanos);
+        journal.record(gameStatus.getGameId(), gameStatus.getNarrowingIn(), gameStatus.getBoard(),
+                version, Moves.of(move), tier.ordinal(), nanos);
+        ponderer.ponder(session, gameStatus, move, routed, tier);
+        decision.complete(Moves.of(move));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deciders.shutdownNow();
+    }
+}
@@ -0,0 +1,118 @@
+package com.team.name.bestrestservice.routing;
+
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.DecisionEngine;
+import com.team.name.bestrestservice.Forecast;
+import com.team.name.bestrestservice.GameSession;
+import com.team.name.bestrestservice.Moves;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.Speculation;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import com.team.name.bestrestservice.search.SearchAI;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Thinks about a game while it waits for its next tick. Once a move is
+// answered, the boards that tick most likely brings are decided on
+// low-priority threads against a copy of the game's session. The next
+// request stops that work first thing and is answered from it if its board,
+// countdown and engine version match one of those boards.
+@Component
+public class Ponderer {
+
+    private final boolean enabled;
+    private final int maxBoards;
+    private final int maxCells;
+    private final long deadlineNanos;
+    private final EngineRegistry engines;
+    private final DecisionMetrics metrics;
+    // Search of its own without helpers, so pondering never borrows the
+    // cores requests search on
+    private final DecisionEngine search;
+    private final ThreadPoolExecutor executor;
+
+    public Ponderer(EngineRegistry engines, LoadGovernor governor, DecisionMetrics metrics,
+                    @Value("${ponder.enabled:false}") boolean enabled,
+                    @Value("${ponder.threads:1}") int threads,
+                    @Value("${ponder.queue:64}") int queue,
+                    @Value("${ponder.boards:4}") int maxBoards,
+                    @Value("${ponder.max-cells:4096}") int maxCells,
+                    @Value("${search.time-budget-ms:40}") long searchBudgetMillis) {
+        this.enabled = enabled;
+        this.maxBoards = maxBoards;
+        this.maxCells = maxCells;
+        this.deadlineNanos = governor.deadlineNanos();
+        this.engines = engines;
+        this.metrics = metrics;
+        this.search = new SearchAI(searchBudgetMillis, null, metrics);
+        AtomicInteger created = new AtomicInteger();
+        // A full queue drops the game's pondering rather than holding up the request
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue), runnable -> {
+                    Thread thread = new Thread(runnable, "ponder-" + created.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    // Called with the game's lock held as a request starts: stops pondering
+    // and returns the move decided ahead for this board, or Moves.NONE
+    public int take(GameSession session, Board board, int narrowingIn, int version) {
+        int move = session.speculation().take(board, narrowingIn, version);
+        if (move != Speculation.NOT_PONDERED) {
+            metrics.recordPonder(move != Moves.NONE);
+        }
+        return move == Speculation.NOT_PONDERED ? Moves.NONE : move;
+    }
+
+    // Called with the game's lock held once the move is chosen. Only at full
+    // tier, and not when the countdown is about to run out, since the arena
+    // narrowing and the countdown restarting cannot be foreseen.
+    public void ponder(GameSession session, SpaceshipAI.GameStatus gameStatus, String move, int version, LoadGovernor.Tier tier) {
+        Board board = gameStatus.getBoard();
+        int narrowingIn = gameStatus.getNarrowingIn();
+        if (!enabled || tier != LoadGovernor.Tier.FULL || narrowingIn <= 0 || board.cellCount() > maxCells
+                || session.current() != board) {
+            return;
+        }
+        Speculation speculation = session.speculation();
+        long ticket = speculation.ticket();
+        GameSession fork = session.fork();
+        int played = Moves.of(move);
+        speculation.started(executor.submit(() -> run(speculation, ticket, fork, played, narrowingIn - 1, version)));
+    }
+
+    private void run(Speculation speculation, long ticket, GameSession base, int move, int narrowingIn, int version) {
+        Board[] boards = new Board[maxBoards];
+        int count = Forecast.next(base.current(), base.enemies(), move, boards);
+        DecisionEngine engine = version == EngineRegistry.SEARCH ? search : engines.get(version);
+        for (int i = 0; i < count; i++) {
+            if (Thread.currentThread().isInterrupted() || !speculation.current(ticket)) {
+                return;
+            }
+            GameSession fork = base.fork();
+            fork.advance(boards[i], narrowingIn);
+            SpaceshipAI.GameStatus gameStatus = new SpaceshipAI.GameStatus(boards[i], narrowingIn, base.getGameId());
+            gameStatus.attach(fork);
+            gameStatus.setDeadline(System.nanoTime() + deadlineNanos);
+            String decided = engine.decideMove(gameStatus);
+            // A search cut short by the interrupt is not the answer it would give
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            speculation.offer(ticket, boards[i], narrowingIn, version, Moves.of(decided), maxBoards);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
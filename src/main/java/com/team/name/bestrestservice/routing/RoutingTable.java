@@ -0,0 +1,77 @@
+package com.team.name.bestrestservice.routing;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+// Immutable; changes build a new table that the router swaps in atomically
+public final class RoutingTable {
+
+    private final int defaultVersion;
+    private final Map<Integer, Integer> games;
+    private final int canaryVersion;
+    private final int canaryPercent;
+
+    public RoutingTable(Integer defaultVersion, Map<Integer, Integer> games, Integer canaryVersion, Integer canaryPercent) {
+        if (defaultVersion == null) {
+            throw new IllegalArgumentException("defaultVersion is required");
+        }
+        if (canaryPercent != null && (canaryPercent < 0 || canaryPercent > 100)) {
+            throw new IllegalArgumentException("canaryPercent must be between 0 and 100");
+        }
+        this.defaultVersion = defaultVersion;
+        this.games = games == null ? Collections.emptyMap() : Collections.unmodifiableMap(new HashMap<>(games));
+        this.canaryVersion = canaryVersion == null ? defaultVersion : canaryVersion;
+        this.canaryPercent = canaryPercent == null ? 0 : canaryPercent;
+    }
+
+    public static RoutingTable of(int defaultVersion) {
+        return new RoutingTable(defaultVersion, null, null, null);
+    }
+
+    // Pinned games first, then the canary slice, then the default; a game
+    // always lands in the same canary bucket
+    public int route(int gameId) {
+        Integer pinned = games.get(gameId);
+        if (pinned != null) {
+            return pinned;
+        }
+        if (canaryPercent > 0 && bucket(gameId) < canaryPercent) {
+            return canaryVersion;
+        }
+        return defaultVersion;
+    }
+
+    // True if every version the table can route to passes the check
+    public boolean allVersionsMatch(IntPredicate known) {
+        return known.test(defaultVersion) && known.test(canaryVersion)
+                && games.values().stream().allMatch(version -> version != null && known.test(version));
+    }
+
+    public RoutingTable withDefaultVersion(int version) {
+        return new RoutingTable(version, games, canaryVersion, canaryPercent);
+    }
+
+    public int getDefaultVersion() {
+        return defaultVersion;
+    }
+
+    public Map<Integer, Integer> getGames() {
+        return games;
+    }
+
+    public int getCanaryVersion() {
+        return canaryVersion;
+    }
+
+    public int getCanaryPercent() {
+        return canaryPercent;
+    }
+
+    private static int bucket(int gameId) {
+        int h = gameId * 0x9E3779B9;
+        h ^= h >>> 16;
+        return Math.floorMod(h, 100);
+    }
+}
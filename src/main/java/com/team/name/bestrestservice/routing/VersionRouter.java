@@ -0,0 +1,27 @@
+package com.team.name.bestrestservice.routing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+public class VersionRouter {
+
+    private final AtomicReference<RoutingTable> table = new AtomicReference<>(RoutingTable.of(EngineRegistry.V1));
+
+    public int route(int gameId) {
+        return table.get().route(gameId);
+    }
+
+    public RoutingTable table() {
+        return table.get();
+    }
+
+    public void replace(RoutingTable routingTable) {
+        table.set(routingTable);
+    }
+
+    public RoutingTable changeDefaultVersion(int version) {
+        return table.updateAndGet(current -> current.withDefaultVersion(version));
+    }
+}
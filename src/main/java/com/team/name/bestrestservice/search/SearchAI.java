@@ -0,0 +1,72 @@
+package com.team.name.bestrestservice.search;
+
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.DecisionEngine;
+import com.team.name.bestrestservice.EnemyTracker;
+import com.team.name.bestrestservice.GameSession;
+import com.team.name.bestrestservice.Moves;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+public class SearchAI implements DecisionEngine {
+
+    private static final long RESPONSE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final long budgetNanos;
+    private final SearchPool pool;
+    private final DecisionMetrics metrics;
+    private final DecisionEngine fallback;
+
+    public SearchAI(long budgetMillis) {
+        this(budgetMillis, null, null);
+    }
+
+    // With a pool, idle cores search some of the root moves alongside the
+    // caller; without metrics, as outside the service, nothing is timed
+    public SearchAI(long budgetMillis, SearchPool pool, DecisionMetrics metrics) {
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.pool = pool;
+        this.metrics = metrics;
+        this.fallback = new SpaceshipAI(metrics);
+    }
+
+    @Override
+    public String decideMove(SpaceshipAI.GameStatus gameStatus) {
+        Board board = gameStatus.getBoard();
+        if (board.player() == -1 || board.playerHeading() == Board.NO_HEADING) {
+            return fallback.decideMove(gameStatus);
+        }
+
+        // Enemy odds come from the game's tracker when it has seen this board
+        GameSession session = gameStatus.getSession();
+        EnemyTracker tracker = session != null && session.current() == board ? session.enemies() : null;
+
+        long started = System.nanoTime();
+        // Leave some of the request's deadline for writing the answer
+        long deadline = Math.min(started + budgetNanos, gameStatus.getDeadline() - RESPONSE_NANOS);
+        if (deadline - started <= 0) {
+            return fallback.decideMove(gameStatus);
+        }
+        int move;
+        if (pool != null) {
+            move = pool.search(board, tracker, deadline);
+        } else {
+            Searcher searcher = Searcher.acquire();
+            try {
+                move = searcher.search(board, Searcher.odds(board, tracker), deadline);
+            } finally {
+                Searcher.release(searcher);
+            }
+        }
+        if (metrics != null) {
+            metrics.record(DecisionMetrics.Phase.SEARCH, System.nanoTime() - started);
+        }
+        if (move == Moves.NONE) {
+            // Not even one ply finished in time
+            return fallback.decideMove(gameStatus);
+        }
+        return Moves.name(move);
+    }
+}
@@ -0,0 +1,145 @@
+package com.team.name.bestrestservice.search;
+
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.EnemyTracker;
+import com.team.name.bestrestservice.Moves;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+@Component
+public class SearchPool {
+
+    private static final int SLOTS = Searcher.MAX_DEPTH + 1;
+
+    private final ForkJoinPool pool;
+    private final int maxHelpersPerRequest;
+
+    // One permit per pool thread; requests only borrow helpers that are idle,
+    // so under load every game falls back to searching on its own thread
+    private final Semaphore idleHelpers;
+
+    public SearchPool(@Value("${search.pool-threads:0}") int poolThreads,
+                      @Value("${search.max-helpers-per-request:2}") int maxHelpersPerRequest) {
+        int threads = poolThreads > 0 ? poolThreads : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        this.idleHelpers = new Semaphore(threads);
+        this.maxHelpersPerRequest = maxHelpersPerRequest;
+    }
+
+    // Helpers may still be finishing their last node batch after this returns,
+    // so they search a snapshot of the enemy odds rather than the tracker
+    public int search(Board board, EnemyTracker tracker, long deadline) {
+        float[] odds = Searcher.odds(board, tracker);
+        int rootMoves = Searcher.rootMoves(board);
+        int wanted = Math.min(maxHelpersPerRequest, Integer.bitCount(rootMoves) - 1);
+        int helpers = 0;
+        while (helpers < wanted && idleHelpers.tryAcquire()) {
+            helpers++;
+        }
+        if (helpers == 0) {
+            Searcher searcher = Searcher.acquire();
+            try {
+                return searcher.search(board, odds, deadline);
+            } finally {
+                Searcher.release(searcher);
+            }
+        }
+
+        // Deal the root moves round-robin between the helpers and this thread
+        int[] groups = new int[helpers + 1];
+        int next = 0;
+        for (int move = 0; move < Moves.COUNT; move++) {
+            if ((rootMoves & 1 << move) != 0) {
+                groups[next] |= 1 << move;
+                next = (next + 1) % groups.length;
+            }
+        }
+
+        float[] values = new float[Moves.COUNT * SLOTS];
+        AtomicIntegerArray depths = new AtomicIntegerArray(Moves.COUNT);
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[helpers];
+        int submitted = 0;
+        try {
+            for (; submitted < helpers; submitted++) {
+                int group = groups[submitted + 1];
+                tasks[submitted] = pool.submit(() -> {
+                    Searcher helper = Searcher.acquire();
+                    try {
+                        helper.searchRootMoves(board, odds, deadline, group, values, depths);
+                    } finally {
+                        Searcher.release(helper);
+                        idleHelpers.release();
+                    }
+                });
+            }
+        } catch (RejectedExecutionException e) {
+            // Shutting down: hand back the helpers that never started and
+            // search their moves here
+            idleHelpers.release(helpers - submitted);
+            for (int i = submitted; i < helpers; i++) {
+                groups[0] |= groups[i + 1];
+            }
+        }
+        Searcher searcher = Searcher.acquire();
+        try {
+            searcher.searchRootMoves(board, odds, deadline, groups[0], values, depths);
+        } finally {
+            Searcher.release(searcher);
+        }
+        for (int i = 0; i < submitted; i++) {
+            await(tasks[i], deadline);
+        }
+        return merge(rootMoves, values, depths);
+    }
+
+    // Best move at the deepest depth every root move finished; values from
+    // different depths are not comparable. A published depth guarantees its
+    // value is visible even if the helper is still running.
+    private int merge(int rootMoves, float[] values, AtomicIntegerArray depths) {
+        int depth = Searcher.MAX_DEPTH;
+        for (int move = 0; move < Moves.COUNT; move++) {
+            if ((rootMoves & 1 << move) != 0) {
+                depth = Math.min(depth, depths.get(move));
+            }
+        }
+        if (depth == 0) {
+            return Moves.NONE;
+        }
+        int best = Moves.NONE;
+        float bestValue = Float.NEGATIVE_INFINITY;
+        for (int move = 0; move < Moves.COUNT; move++) {
+            if ((rootMoves & 1 << move) != 0 && values[move * SLOTS + depth] > bestValue) {
+                bestValue = values[move * SLOTS + depth];
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    private void await(ForkJoinTask<?> task, long deadline) {
+        // Helpers watch the same deadline; the grace only covers their last node batch
+        long remaining = deadline - System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(5);
+        try {
+            task.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Whatever the helper finished is still in the shared arrays
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
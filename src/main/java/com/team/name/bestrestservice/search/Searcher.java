@@ -0,0 +1,581 @@
+package com.team.name.bestrestservice.search;
+
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.EnemyTracker;
+import com.team.name.bestrestservice.Moves;
+import com.team.name.bestrestservice.Scratch;
+import com.team.name.bestrestservice.Zobrist;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Expectimax over our moves. After our first move the enemy nearest our ship
+// acts once, by the odds its track gives each action; further down, enemies
+// stand still and only their odds of firing or leaving a lane are scored.
+final class Searcher {
+
+    static final int MAX_DEPTH = 12;
+
+    private static final Scratch<Searcher> SCRATCH = new Scratch<>(Searcher::new);
+
+    private static final int RANGE = 4;
+    // Coins and enemies beyond this many are left out of the state masks
+    private static final int MAX_TRACKED = 64;
+
+    private static final float GAMMA = 0.9f;
+    private static final float COIN = 1f;
+    private static final float KILL = 3f;
+    private static final float DEATH = 10f;
+    private static final float WASTED_SHOT = 0.05f;
+    private static final float CENTER_WEIGHT = 0.02f;
+    private static final float COIN_WEIGHT = 0.05f;
+
+    // Enemy odds per EnemyTracker action, used when the game has no tracked history
+    private static final int ACTIONS = 4;
+    private static final float[] DEFAULT_ODDS = {0.4f, 0.2f, 0.2f, 0.2f};
+    // The chance layer only expands an enemy this close to our ship, and
+    // leaves out actions it takes less often than this
+    private static final int CHANCE_RANGE = RANGE + 2;
+    private static final float MIN_ODDS = 0.1f;
+
+    // Enemy odds are rounded to eighths and hashed with the enemy, so two
+    // positions share a table entry only if the search would score them alike
+    private static final int ODDS_STEPS = 8;
+    private static final long ODDS_SEED = 0x0DD5L;
+    // Beyond this many cells the center term is the straight-line distance,
+    // as flooding the whole board for it would cost more than the search
+    private static final int FLOOD_CELLS = 64 * 64;
+
+    private final TranspositionTable table;
+    private int age;
+
+    // Root snapshot; coins and enemies get a slot so the state can mark them in a bit mask
+    private Board board;
+    private int[] slotAt = new int[Board.CELLS];
+    private int[] slotStamp = new int[Board.CELLS];
+    private int stamp;
+    private final int[] coinCells = new int[MAX_TRACKED];
+    private int coinCount;
+    private final int[] enemyCells = new int[MAX_TRACKED];
+    private final int[] enemyHeadings = new int[MAX_TRACKED];
+    private final float[] enemyHold = new float[MAX_TRACKED];
+    private final float[] enemyMove = new float[MAX_TRACKED];
+    private final long[] enemyKeys = new long[MAX_TRACKED];
+    private final long[] enemyOddsKeys = new long[MAX_TRACKED];
+    private final float[] enemyOdds = new float[MAX_TRACKED * ACTIONS];
+    private int enemyCount;
+    private int[] centerDist = new int[Board.CELLS];
+    private int[] queue = new int[Board.CELLS];
+
+    // Search state, changed in place and restored after every move. The
+    // enemy the chance layer moves has its cell, heading and key changed in
+    // the root snapshot while it is expanded.
+    private int cell;
+    private int heading;
+    private long coins;
+    private long kills;
+    private long hash;
+    private int ply;
+    private int moved = -1;
+    private int movedFrom = -1;
+
+    private long deadline;
+    private int nodes;
+    private boolean timedOut;
+    private int completedDepth;
+
+    Searcher() {
+        this(TranspositionTable.SHARED);
+    }
+
+    Searcher(TranspositionTable table) {
+        this.table = table;
+    }
+
+    // Hand it back with release once the search is over
+    static Searcher acquire() {
+        return SCRATCH.acquire();
+    }
+
+    static void release(Searcher searcher) {
+        SCRATCH.release(searcher);
+    }
+
+    // Iterative deepening until the deadline; returns the best move of the
+    // deepest finished iteration, or Moves.NONE if not even depth 1 finished
+    int search(Board board, float[] odds, long deadline) {
+        prepare(board, odds);
+        this.deadline = deadline;
+        this.nodes = 0;
+        this.timedOut = false;
+        this.completedDepth = 0;
+        this.age = table.newSearch();
+
+        int best = Moves.NONE;
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            int move = root(depth, best);
+            if (timedOut) {
+                break;
+            }
+            best = move;
+            completedDepth = depth;
+        }
+        return best;
+    }
+
+    // One iteration at the root. The best move is kept here rather than read
+    // back from the table afterwards: the table is shared, so another search
+    // may have replaced the root's entry by then.
+    private int root(int depth, int previous) {
+        int hinted = previous != Moves.NONE ? previous : TranspositionTable.move(table.probe(hash));
+        float best = Float.NEGATIVE_INFINITY;
+        int bestMove = Moves.NONE;
+        for (int i = -1; i < Moves.COUNT; i++) {
+            int move = i == -1 ? hinted : i;
+            if (move == Moves.NONE || (i >= 0 && move == hinted)) {
+                continue;
+            }
+            if (move == Moves.MOVE && !canMoveForward()) {
+                continue; // Same as skipping
+            }
+            float value = play(move, depth);
+            if (timedOut) {
+                return Moves.NONE;
+            }
+            if (value > best) {
+                best = value;
+                bestMove = move;
+            }
+        }
+        table.store(hash, age, depth, bestMove, best);
+        return bestMove;
+    }
+
+    // Iterative deepening over a subset of root moves, for callers that split
+    // the root across threads. Records each move's value per finished depth in
+    // values[move * (MAX_DEPTH + 1) + depth] and its deepest finished depth.
+    void searchRootMoves(Board board, float[] odds, long deadline, int movesMask, float[] values, AtomicIntegerArray depths) {
+        prepare(board, odds);
+        this.deadline = deadline;
+        this.nodes = 0;
+        this.timedOut = false;
+        this.completedDepth = 0;
+        this.age = table.newSearch();
+
+        for (int depth = 1; depth <= MAX_DEPTH && !timedOut; depth++) {
+            for (int move = 0; move < Moves.COUNT; move++) {
+                if ((movesMask & 1 << move) == 0) {
+                    continue;
+                }
+                float value = play(move, depth);
+                if (timedOut) {
+                    break;
+                }
+                values[move * (MAX_DEPTH + 1) + depth] = value;
+                depths.set(move, depth);
+            }
+            if (!timedOut) {
+                completedDepth = depth;
+            }
+        }
+    }
+
+    // The odds of each EnemyTracker action for the board's enemies, in board
+    // order and up to MAX_TRACKED of them. Taken by the caller while it holds
+    // the game, so searches never read the tracker, which the next tick of the
+    // game may be updating while helpers are still running.
+    static float[] odds(Board board, EnemyTracker tracker) {
+        int enemies = Math.min(board.enemyCount(), MAX_TRACKED);
+        float[] odds = new float[enemies * ACTIONS];
+        // Tracks line up with the board's enemy order when the tracker has seen this board
+        boolean tracked = tracker != null && tracker.count() == board.enemyCount();
+        for (int e = 0; e < enemies; e++) {
+            boolean known = tracked && tracker.cell(e) == board.enemy(e);
+            for (int action = 0; action < ACTIONS; action++) {
+                odds[e * ACTIONS + action] = known ? tracker.probability(e, action) : DEFAULT_ODDS[action];
+            }
+        }
+        return odds;
+    }
+
+    // Root moves worth searching on this board, as a bit mask over move codes
+    static int rootMoves(Board board) {
+        int mask = 1 << Moves.SKIP | 1 << Moves.LEFT | 1 << Moves.RIGHT | 1 << Moves.FIRE;
+        int ahead = board.step(board.player(), board.playerHeading());
+        if (ahead != -1 && board.isPassable(ahead)) {
+            mask |= 1 << Moves.MOVE;
+        }
+        return mask;
+    }
+
+    int completedDepth() {
+        return completedDepth;
+    }
+
+    int nodes() {
+        return nodes;
+    }
+
+    private float node(int depth) {
+        // Pondering stops a search early by interrupting its thread
+        if ((++nodes & 255) == 0 && (System.nanoTime() > deadline || Thread.currentThread().isInterrupted())) {
+            timedOut = true;
+        }
+        if (timedOut) {
+            return 0f;
+        }
+        if (depth == 0) {
+            return evaluate();
+        }
+
+        long key = hash;
+        long entry = table.probe(key);
+        int hinted = Moves.NONE;
+        if (entry != 0) {
+            if (TranspositionTable.depth(entry) >= depth) {
+                return TranspositionTable.score(entry);
+            }
+            hinted = TranspositionTable.move(entry);
+        }
+
+        // Previous best move first, then the rest in code order
+        float best = Float.NEGATIVE_INFINITY;
+        int bestMove = Moves.NONE;
+        for (int i = -1; i < Moves.COUNT; i++) {
+            int move = i == -1 ? hinted : i;
+            if (move == Moves.NONE || (i >= 0 && move == hinted)) {
+                continue;
+            }
+            if (move == Moves.MOVE && !canMoveForward()) {
+                continue; // Same as skipping
+            }
+            float value = play(move, depth);
+            if (value > best) {
+                best = value;
+                bestMove = move;
+            }
+        }
+        if (!timedOut) {
+            table.store(key, age, depth, bestMove, best);
+        }
+        return best;
+    }
+
+    private float play(int move, int depth) {
+        int savedCell = cell;
+        int savedHeading = heading;
+        long savedCoins = coins;
+        long savedKills = kills;
+        long savedHash = hash;
+        ply++;
+
+        float reward = 0f;
+        if (move == Moves.MOVE) {
+            hash ^= playerKey(cell, heading);
+            cell = board.step(cell, heading);
+            hash ^= playerKey(cell, heading);
+            int slot = coinAt(cell);
+            if (slot != -1 && (coins & 1L << slot) == 0) {
+                coins |= 1L << slot;
+                hash ^= Zobrist.key(cell, board.cell(cell));
+                reward += COIN;
+            }
+        } else if (move == Moves.LEFT || move == Moves.RIGHT) {
+            hash ^= playerKey(cell, heading);
+            heading = Moves.turn(heading, move);
+            hash ^= playerKey(cell, heading);
+        } else if (move == Moves.FIRE) {
+            int target = target();
+            if (target == -1) {
+                reward -= WASTED_SHOT;
+            } else {
+                kills |= 1L << target;
+                hash ^= enemyKeys[target];
+                reward += KILL * hitChance(target);
+            }
+        }
+
+        // Enemies lined up on us may fire; being hit ends the line
+        float danger = danger();
+        float future = ply == 1 && depth > 1 ? chance(depth - 1) : node(depth - 1);
+        float value = reward - danger * DEATH + (1f - danger) * GAMMA * future;
+
+        ply--;
+        cell = savedCell;
+        heading = savedHeading;
+        coins = savedCoins;
+        kills = savedKills;
+        hash = savedHash;
+        return value;
+    }
+
+    // The nearest enemy acts by its odds, each action weighed by how likely
+    // it is; a move it cannot make leaves it where it was
+    private float chance(int depth) {
+        int e = nearestEnemy();
+        if (e == -1) {
+            return node(depth);
+        }
+        int from = enemyCells[e];
+        int fromHeading = enemyHeadings[e];
+        long fromKey = enemyKeys[e];
+        long savedHash = hash;
+        moved = e;
+        movedFrom = from;
+
+        float expected = 0f;
+        float total = 0f;
+        for (int action = 0; action < ACTIONS; action++) {
+            float odds = enemyOdds[e * ACTIONS + action];
+            if (odds < MIN_ODDS) {
+                continue;
+            }
+            if (action == EnemyTracker.MOVE) {
+                int ahead = board.step(from, fromHeading);
+                if (ahead != -1 && ahead != cell && board.isPassable(ahead)) {
+                    moveEnemy(e, ahead, fromHeading);
+                }
+            } else if (action == EnemyTracker.LEFT) {
+                moveEnemy(e, from, Moves.turn(fromHeading, Moves.LEFT));
+            } else if (action == EnemyTracker.RIGHT) {
+                moveEnemy(e, from, Moves.turn(fromHeading, Moves.RIGHT));
+            }
+            expected += odds * node(depth);
+            total += odds;
+
+            enemyCells[e] = from;
+            enemyHeadings[e] = fromHeading;
+            enemyKeys[e] = fromKey;
+            hash = savedHash;
+        }
+        moved = -1;
+        movedFrom = -1;
+        return expected / total;
+    }
+
+    private void moveEnemy(int e, int to, int toHeading) {
+        hash ^= enemyKeys[e];
+        enemyCells[e] = to;
+        enemyHeadings[e] = toHeading;
+        enemyKeys[e] = Zobrist.key(to, Board.withHeading(Board.ENEMY, toHeading)) ^ enemyOddsKeys[e];
+        hash ^= enemyKeys[e];
+    }
+
+    // Closest live enemy with a heading within CHANCE_RANGE steps, or -1
+    private int nearestEnemy() {
+        int x = board.x(cell);
+        int y = board.y(cell);
+        int nearest = -1;
+        int nearestDist = CHANCE_RANGE + 1;
+        for (int e = 0; e < enemyCount; e++) {
+            if ((kills & 1L << e) != 0 || enemyHeadings[e] == Board.NO_HEADING) {
+                continue;
+            }
+            int dist = Math.abs(board.x(enemyCells[e]) - x) + Math.abs(board.y(enemyCells[e]) - y);
+            if (dist < nearestDist) {
+                nearest = e;
+                nearestDist = dist;
+            }
+        }
+        return nearest;
+    }
+
+    private boolean canMoveForward() {
+        int ahead = board.step(cell, heading);
+        if (ahead == -1) {
+            return false;
+        }
+        int enemy = enemyAt(ahead);
+        if (enemy != -1) {
+            return (kills & 1L << enemy) != 0;
+        }
+        return ahead == board.player() || ahead == movedFrom || board.isPassable(ahead);
+    }
+
+    // Slot of the first live enemy in our firing lane, or -1
+    private int target() {
+        int current = cell;
+        for (int i = 1; i <= RANGE; i++) {
+            current = board.step(current, heading);
+            if (current == -1 || board.is(current, Board.ASTEROID)) {
+                return -1;
+            }
+            int enemy = enemyAt(current);
+            if (enemy != -1 && (kills & 1L << enemy) == 0) {
+                return enemy;
+            }
+        }
+        return -1;
+    }
+
+    // An enemy moving along our lane stays in it; one moving across leaves it
+    private float hitChance(int enemy) {
+        int enemyHeading = enemyHeadings[enemy];
+        if (enemyHeading == Board.NO_HEADING || (enemyHeading & 1) == (heading & 1)) {
+            return 1f;
+        }
+        return 1f - enemyMove[enemy];
+    }
+
+    private float danger() {
+        int x = board.x(cell);
+        int y = board.y(cell);
+        float safe = 1f;
+        for (int e = 0; e < enemyCount; e++) {
+            if ((kills & 1L << e) != 0 || enemyHeadings[e] == Board.NO_HEADING) {
+                continue;
+            }
+            int from = enemyCells[e];
+            int ex = board.x(from);
+            int ey = board.y(from);
+            if ((ex != x && ey != y) || Math.abs(ex - x) + Math.abs(ey - y) > RANGE) {
+                continue;
+            }
+            int h = enemyHeadings[e];
+            if (Integer.signum(x - ex) != Board.dx(h) || Integer.signum(y - ey) != Board.dy(h)) {
+                continue; // Not facing us
+            }
+            int current = from;
+            boolean blocked = false;
+            while ((current = board.step(current, h)) != cell) {
+                if (board.is(current, Board.ASTEROID)) {
+                    blocked = true;
+                    break;
+                }
+            }
+            if (!blocked) {
+                safe *= 1f - enemyHold[e];
+            }
+        }
+        return 1f - safe;
+    }
+
+    private float evaluate() {
+        float score = -CENTER_WEIGHT * centerDistance(cell);
+        int nearest = Integer.MAX_VALUE;
+        for (int c = 0; c < coinCount; c++) {
+            if ((coins & 1L << c) == 0) {
+                int coin = coinCells[c];
+                int dist = Math.abs(board.x(coin) - board.x(cell)) + Math.abs(board.y(coin) - board.y(cell));
+                nearest = Math.min(nearest, dist);
+            }
+        }
+        if (nearest != Integer.MAX_VALUE) {
+            score -= COIN_WEIGHT * nearest;
+        }
+        return score;
+    }
+
+    private int centerDistance(int cell) {
+        if (board.cellCount() > FLOOD_CELLS) {
+            return Math.abs(board.x(cell) - board.width() / 2) + Math.abs(board.y(cell) - board.height() / 2);
+        }
+        return centerDist[cell];
+    }
+
+    private static long playerKey(int cell, int heading) {
+        return Zobrist.key(cell, Board.withHeading(Board.PLAYER, heading));
+    }
+
+    private static float quantize(float probability) {
+        int step = Math.min(ODDS_STEPS - 1, (int) (probability * ODDS_STEPS));
+        return (step + 0.5f) / ODDS_STEPS;
+    }
+
+    private int coinAt(int cell) {
+        return slotStamp[cell] == stamp && board.is(cell, Board.COIN) ? slotAt[cell] : -1;
+    }
+
+    // Slot of the enemy standing on the cell, counting the one the chance
+    // layer moved where it went rather than where it was
+    private int enemyAt(int cell) {
+        if (moved != -1 && enemyCells[moved] == cell) {
+            return moved;
+        }
+        int enemy = slotStamp[cell] == stamp && board.is(cell, Board.ENEMY) ? slotAt[cell] : -1;
+        return enemy == moved ? -1 : enemy;
+    }
+
+    private void prepare(Board board, float[] odds) {
+        this.board = board;
+        if (slotAt.length < board.cellCount()) {
+            slotAt = new int[board.cellCount()];
+            slotStamp = new int[board.cellCount()];
+            stamp = 0;
+        }
+        if (++stamp == 0) {
+            Arrays.fill(slotStamp, 0);
+            stamp = 1;
+        }
+
+        coinCount = Math.min(board.coinCount(), MAX_TRACKED);
+        for (int c = 0; c < coinCount; c++) {
+            coinCells[c] = board.coin(c);
+            slotAt[coinCells[c]] = c;
+            slotStamp[coinCells[c]] = stamp;
+        }
+
+        enemyCount = Math.min(board.enemyCount(), MAX_TRACKED);
+        for (int e = 0; e < enemyCount; e++) {
+            int enemy = board.enemy(e);
+            enemyCells[e] = enemy;
+            enemyHeadings[e] = Board.heading(board.cell(enemy));
+            slotAt[enemy] = e;
+            slotStamp[enemy] = stamp;
+            enemyHold[e] = quantize(odds[e * ACTIONS + EnemyTracker.HOLD]);
+            enemyMove[e] = quantize(odds[e * ACTIONS + EnemyTracker.MOVE]);
+            System.arraycopy(odds, e * ACTIONS, enemyOdds, e * ACTIONS, ACTIONS);
+            int rounded = (int) (enemyHold[e] * ODDS_STEPS) * ODDS_STEPS + (int) (enemyMove[e] * ODDS_STEPS);
+            enemyOddsKeys[e] = Zobrist.mix(ODDS_SEED, (long) enemy * ODDS_STEPS * ODDS_STEPS + rounded);
+            enemyKeys[e] = Zobrist.key(enemy, board.cell(enemy)) ^ enemyOddsKeys[e];
+        }
+
+        floodFromCenter();
+        cell = board.player();
+        heading = board.playerHeading();
+        coins = 0L;
+        kills = 0L;
+        ply = 0;
+        moved = -1;
+        movedFrom = -1;
+
+        hash = Zobrist.hashWithoutPlayer(board) ^ playerKey(cell, heading);
+        for (int e = 0; e < enemyCount; e++) {
+            // Swap the plain enemy key for the one that also carries its odds
+            hash ^= Zobrist.key(enemyCells[e], board.cell(enemyCells[e])) ^ enemyKeys[e];
+        }
+    }
+
+    // Step distances from the center, walking through ships since they move
+    private void floodFromCenter() {
+        if (board.cellCount() > FLOOD_CELLS) {
+            return;
+        }
+        int center = board.index(board.width() / 2, board.height() / 2);
+        if (centerDist.length < board.cellCount()) {
+            centerDist = new int[board.cellCount()];
+            queue = new int[board.cellCount()];
+        }
+        int unreached = board.cellCount();
+        Arrays.fill(centerDist, 0, unreached, unreached);
+        int head = 0;
+        int tail = 0;
+        centerDist[center] = 0;
+        queue[tail++] = center;
+        while (head < tail) {
+            int current = queue[head++];
+            for (int h = 0; h < 4; h++) {
+                int next = board.step(current, h);
+                if (next == -1 || centerDist[next] != unreached) {
+                    continue;
+                }
+                int type = board.type(next);
+                if (type == Board.ASTEROID || type == Board.OTHER) {
+                    continue;
+                }
+                centerDist[next] = centerDist[current] + 1;
+                queue[tail++] = next;
+            }
+        }
+    }
+}
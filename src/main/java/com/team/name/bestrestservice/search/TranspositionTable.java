@@ -0,0 +1,73 @@
+package com.team.name.bestrestservice.search;
+
+import com.team.name.bestrestservice.Moves;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+final class TranspositionTable {
+
+    // One table for every search in the process: positions are keyed by their
+    // full Zobrist hash, so a result is valid for any game that reaches them
+    static final TranspositionTable SHARED = new TranspositionTable(20);
+
+    // Entries age in epochs of this many searches
+    private static final int EPOCH_SHIFT = 10;
+
+    // Lock-free: each slot stores key ^ data next to data, so a slot torn by
+    // concurrent writers fails the key check instead of returning garbage
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private final AtomicLong searches = new AtomicLong();
+
+    TranspositionTable(int sizePowerOfTwo) {
+        this.keys = new long[1 << sizePowerOfTwo];
+        this.data = new long[1 << sizePowerOfTwo];
+        this.mask = (1 << sizePowerOfTwo) - 1;
+    }
+
+    // Returns the age to stamp this search's entries with
+    int newSearch() {
+        return (int) (searches.incrementAndGet() >>> EPOCH_SHIFT) & 0xFFFF;
+    }
+
+    // Packed entry for the key, or 0 when absent
+    long probe(long key) {
+        int slot = (int) key & mask;
+        long entry = data[slot];
+        if (entry == 0 || (keys[slot] ^ entry) != key) {
+            return 0;
+        }
+        return entry;
+    }
+
+    // Replaces entries from an older epoch, or ones searched no deeper
+    void store(long key, int age, int depth, int move, float score) {
+        int slot = (int) key & mask;
+        long entry = data[slot];
+        if (entry != 0 && (keys[slot] ^ entry) != key && age(entry) == age && depth(entry) > depth) {
+            return;
+        }
+        long packed = (long) age << 48 | (long) (depth + 1) << 40 | (long) (move + 1) << 32
+                | (Float.floatToRawIntBits(score) & 0xFFFFFFFFL);
+        data[slot] = packed;
+        keys[slot] = key ^ packed;
+    }
+
+    static int age(long entry) {
+        return (int) (entry >>> 48) & 0xFFFF;
+    }
+
+    static int depth(long entry) {
+        return ((int) (entry >>> 40) & 0xFF) - 1;
+    }
+
+    static int move(long entry) {
+        int move = ((int) (entry >>> 32) & 0xFF) - 1;
+        return move < 0 ? Moves.NONE : move;
+    }
+
+    static float score(long entry) {
+        return Float.intBitsToFloat((int) entry);
+    }
+}
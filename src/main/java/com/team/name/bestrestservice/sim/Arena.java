@@ -0,0 +1,244 @@
+package com.team.name.bestrestservice.sim;
+
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.Moves;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Headless game with the rules the engines are written against: a square
+// grid, 13x13 unless set otherwise, asteroids, coins, shots reaching 4 cells unless an asteroid is in
+// the way, and an arena that closes one ring at a time. A tick resolves all
+// ships at once: shots are traced from where ships stood, then turns, then
+// moves. A move fails if the target is blocked, held by a ship at the start
+// of the tick, or wanted by another ship.
+public final class Arena {
+
+    public static final int RANGE = 4;
+    public static final int COIN_POINTS = 1;
+    public static final int KILL_POINTS = 3;
+
+    private final SplittableRandom random;
+    private final Settings settings;
+    // Empty board of the arena's size, for its geometry
+    private final Board geometry;
+    private final byte[] terrain;
+    private final int[] cells;
+    private final int[] headings;
+    private final boolean[] alive;
+    private final int[] points;
+    private final int[] kills;
+    private final int[] shipAt;
+    private final byte[] view;
+    private int tick;
+    private int narrowingIn;
+    private int closedRings;
+
+    public static final class Settings {
+        public int size = Board.SIZE;
+        public int ships = 4;
+        public int maxTicks = 300;
+        public int narrowingPeriod = 40;
+        public double asteroids = 0.06;
+        public double coins = 0.05;
+        // Chance per tick that a new coin appears on a free cell
+        public double coinSpawn = 0.3;
+    }
+
+    public Arena(Settings settings, long seed) {
+        this.settings = settings;
+        this.random = new SplittableRandom(seed);
+        this.geometry = new Board(settings.size, settings.size);
+        this.terrain = new byte[geometry.cellCount()];
+        this.shipAt = new int[geometry.cellCount()];
+        this.view = new byte[geometry.cellCount()];
+        this.cells = new int[settings.ships];
+        this.headings = new int[settings.ships];
+        this.alive = new boolean[settings.ships];
+        this.points = new int[settings.ships];
+        this.kills = new int[settings.ships];
+        this.narrowingIn = settings.narrowingPeriod - 1;
+
+        for (int cell = 0; cell < terrain.length; cell++) {
+            double roll = random.nextDouble();
+            terrain[cell] = roll < settings.asteroids ? Board.ASTEROID
+                    : roll < settings.asteroids + settings.coins ? Board.COIN : Board.EMPTY;
+        }
+        Arrays.fill(shipAt, -1);
+        for (int ship = 0; ship < settings.ships; ship++) {
+            int cell = freeCell();
+            terrain[cell] = Board.EMPTY;
+            cells[ship] = cell;
+            headings[ship] = random.nextInt(4);
+            alive[ship] = true;
+            shipAt[cell] = ship;
+        }
+    }
+
+    // The board as the given ship sees it: itself as the player, everyone else as enemies
+    public Board view(int ship) {
+        System.arraycopy(terrain, 0, view, 0, terrain.length);
+        for (int other = 0; other < cells.length; other++) {
+            if (alive[other]) {
+                view[cells[other]] = Board.withHeading(other == ship ? Board.PLAYER : Board.ENEMY, headings[other]);
+            }
+        }
+        return Board.read(ByteBuffer.wrap(view), settings.size, settings.size);
+    }
+
+    // Plays one tick; moves holds a Moves code per ship, ignored for dead ships
+    public void step(int[] moves) {
+        boolean[] shot = new boolean[cells.length];
+        for (int ship = 0; ship < cells.length; ship++) {
+            if (alive[ship] && moves[ship] == Moves.FIRE) {
+                int victim = trace(cells[ship], headings[ship]);
+                if (victim != -1) {
+                    shot[victim] = true;
+                    kills[ship]++;
+                    points[ship] += KILL_POINTS;
+                }
+            }
+        }
+
+        int[] targets = new int[cells.length];
+        for (int ship = 0; ship < cells.length; ship++) {
+            targets[ship] = -1;
+            if (!alive[ship]) {
+                continue;
+            }
+            if (moves[ship] == Moves.LEFT || moves[ship] == Moves.RIGHT) {
+                headings[ship] = Moves.turn(headings[ship], moves[ship]);
+            } else if (moves[ship] == Moves.MOVE) {
+                int ahead = geometry.step(cells[ship], headings[ship]);
+                if (ahead != -1 && terrain[ahead] != Board.ASTEROID && shipAt[ahead] == -1) {
+                    targets[ship] = ahead;
+                }
+            }
+        }
+        for (int ship = 0; ship < cells.length; ship++) {
+            if (targets[ship] != -1 && !contested(targets, ship)) {
+                shipAt[cells[ship]] = -1;
+                cells[ship] = targets[ship];
+                shipAt[cells[ship]] = ship;
+            }
+        }
+
+        for (int ship = 0; ship < cells.length; ship++) {
+            if (shot[ship]) {
+                kill(ship);
+            } else if (alive[ship] && terrain[cells[ship]] == Board.COIN) {
+                terrain[cells[ship]] = Board.EMPTY;
+                points[ship] += COIN_POINTS;
+            }
+        }
+
+        narrow();
+        if (random.nextDouble() < settings.coinSpawn) {
+            int cell = freeCell();
+            if (cell != -1) {
+                terrain[cell] = Board.COIN;
+            }
+        }
+        tick++;
+    }
+
+    // First living ship a shot from cell along heading runs into, or -1
+    private int trace(int cell, int heading) {
+        int current = cell;
+        for (int i = 1; i <= RANGE; i++) {
+            current = geometry.step(current, heading);
+            if (current == -1 || terrain[current] == Board.ASTEROID) {
+                return -1;
+            }
+            if (shipAt[current] != -1) {
+                return shipAt[current];
+            }
+        }
+        return -1;
+    }
+
+    private static boolean contested(int[] targets, int ship) {
+        for (int other = 0; other < targets.length; other++) {
+            if (other != ship && targets[other] == targets[ship]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void narrow() {
+        if (closedRings >= geometry.rings() - 1) {
+            return;
+        }
+        if (narrowingIn > 0) {
+            narrowingIn--;
+            return;
+        }
+        for (int cell = 0; cell < terrain.length; cell++) {
+            if (geometry.ring(cell) == closedRings) {
+                terrain[cell] = Board.ASTEROID;
+                if (shipAt[cell] != -1) {
+                    kill(shipAt[cell]);
+                }
+            }
+        }
+        closedRings++;
+        narrowingIn = settings.narrowingPeriod - 1;
+    }
+
+    private void kill(int ship) {
+        if (alive[ship]) {
+            alive[ship] = false;
+            shipAt[cells[ship]] = -1;
+        }
+    }
+
+    private int freeCell() {
+        for (int attempt = 0; attempt < terrain.length * 4; attempt++) {
+            int cell = random.nextInt(terrain.length);
+            if (terrain[cell] == Board.EMPTY && shipAt[cell] == -1 && geometry.ring(cell) >= closedRings) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    public boolean over() {
+        return tick >= settings.maxTicks || aliveCount() <= 1;
+    }
+
+    public int aliveCount() {
+        int count = 0;
+        for (boolean a : alive) {
+            if (a) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int ships() {
+        return cells.length;
+    }
+
+    public boolean alive(int ship) {
+        return alive[ship];
+    }
+
+    public int points(int ship) {
+        return points[ship];
+    }
+
+    public int kills(int ship) {
+        return kills[ship];
+    }
+
+    public int tick() {
+        return tick;
+    }
+
+    public int narrowingIn() {
+        return narrowingIn;
+    }
+}
@@ -0,0 +1,83 @@
+package com.team.name.bestrestservice.sim;
+
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.DecisionEngine;
+import com.team.name.bestrestservice.GameSession;
+import com.team.name.bestrestservice.Moves;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.metrics.LatencyHistogram;
+
+// One seeded game. Every seat gets its own GameSession, as it would behind
+// /move, so engines see the same history they see in production.
+public final class Match {
+
+    public static final int DRAW = -1;
+
+    private final Arena arena;
+    private final DecisionEngine[] seats;
+    private final LatencyHistogram[] latencies;
+    private final GameSession[] sessions;
+
+    // latencies has one histogram per seat; seats may share one
+    public Match(Arena arena, DecisionEngine[] seats, LatencyHistogram[] latencies, int firstGameId) {
+        this.arena = arena;
+        this.seats = seats;
+        this.latencies = latencies;
+        this.sessions = new GameSession[seats.length];
+        for (int seat = 0; seat < seats.length; seat++) {
+            sessions[seat] = new GameSession(firstGameId + seat);
+        }
+    }
+
+    // Plays to the end and returns the winning seat, or DRAW
+    public int play() {
+        int[] moves = new int[seats.length];
+        while (!arena.over()) {
+            for (int seat = 0; seat < seats.length; seat++) {
+                moves[seat] = arena.alive(seat) ? decide(seat) : Moves.SKIP;
+            }
+            arena.step(moves);
+        }
+        return winner();
+    }
+
+    private int decide(int seat) {
+        Board board = arena.view(seat);
+        GameSession session = sessions[seat];
+        session.advance(board, arena.narrowingIn());
+        SpaceshipAI.GameStatus gameStatus = new SpaceshipAI.GameStatus(board, arena.narrowingIn(), session.getGameId());
+        gameStatus.attach(session);
+
+        long started = System.nanoTime();
+        String move = seats[seat].decideMove(gameStatus);
+        latencies[seat].record(System.nanoTime() - started);
+        return Moves.of(move);
+    }
+
+    // The last ship standing wins; otherwise the most points among the
+    // survivors, or among everyone when nobody survived
+    private int winner() {
+        boolean anyAlive = arena.aliveCount() > 0;
+        int best = DRAW;
+        int bestPoints = Integer.MIN_VALUE;
+        boolean tied = false;
+        for (int seat = 0; seat < seats.length; seat++) {
+            if (anyAlive && !arena.alive(seat)) {
+                continue;
+            }
+            int points = arena.points(seat);
+            if (points > bestPoints) {
+                bestPoints = points;
+                best = seat;
+                tied = false;
+            } else if (points == bestPoints) {
+                tied = true;
+            }
+        }
+        return tied ? DRAW : best;
+    }
+
+    public Arena arena() {
+        return arena;
+    }
+}
@@ -0,0 +1,142 @@
+package com.team.name.bestrestservice.sim;
+
+import com.team.name.bestrestservice.DecisionEngine;
+import com.team.name.bestrestservice.GameSession;
+import com.team.name.bestrestservice.Moves;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.journal.JournalReader;
+import com.team.name.bestrestservice.metrics.LatencyHistogram;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Feeds a decision journal back through an engine as fast as it will go and
+// compares its moves and timings with what was recorded.
+//
+//   mvn -Preplay verify -Dreplay.args="--journal journal --engine v1"
+//
+// Every game gets its own GameSession and sees its ticks in journal order,
+// so trackers and tours build up as they did in production. --slowest N
+// lists the N slowest recorded ticks.
+public final class Replay {
+
+    private final DecisionEngine engine;
+    private final Map<Integer, GameSession> sessions = new HashMap<>();
+    private final LatencyHistogram recorded = new LatencyHistogram();
+    private final LatencyHistogram replayed = new LatencyHistogram();
+    private final PriorityQueue<long[]> slowest;
+    private final int keepSlowest;
+    private long ticks;
+    private long agreed;
+    private final long[] byVersion = new long[8];
+    private final long[] agreedByVersion = new long[8];
+
+    public Replay(DecisionEngine engine, int keepSlowest) {
+        this.engine = engine;
+        this.keepSlowest = keepSlowest;
+        this.slowest = new PriorityQueue<>(Math.max(1, keepSlowest), (a, b) -> Long.compare(a[0], b[0]));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path journal = Paths.get("journal");
+        String engineName = "v1";
+        long budgetMillis = 40;
+        int keepSlowest = 10;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--journal":
+                    journal = Paths.get(value);
+                    break;
+                case "--engine":
+                    engineName = value;
+                    break;
+                case "--budget-ms":
+                    budgetMillis = Long.parseLong(value);
+                    break;
+                case "--slowest":
+                    keepSlowest = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        Replay replay = new Replay(Tournament.engine(engineName, budgetMillis), keepSlowest);
+        long started = System.nanoTime();
+        JournalReader.read(journal, replay::replay);
+        System.out.print(replay.report(engineName, (System.nanoTime() - started) / 1e9));
+    }
+
+    public void replay(JournalReader.Entry entry) {
+        GameSession session = sessions.computeIfAbsent(entry.gameId, GameSession::new);
+        session.advance(entry.board, entry.narrowingIn);
+        SpaceshipAI.GameStatus gameStatus = new SpaceshipAI.GameStatus(entry.board, entry.narrowingIn, entry.gameId);
+        gameStatus.attach(session);
+
+        long started = System.nanoTime();
+        int move = Moves.of(engine.decideMove(gameStatus));
+        replayed.record(System.nanoTime() - started);
+        recorded.record(entry.latencyNanos);
+
+        ticks++;
+        int version = entry.version & 7;
+        byVersion[version]++;
+        if (move == entry.move) {
+            agreed++;
+            agreedByVersion[version]++;
+        }
+        if (keepSlowest > 0) {
+            slowest.add(new long[]{entry.latencyNanos, entry.gameId, entry.timestamp, entry.version, entry.move});
+            if (slowest.size() > keepSlowest) {
+                slowest.poll();
+            }
+        }
+    }
+
+    public long ticks() {
+        return ticks;
+    }
+
+    public long agreed() {
+        return agreed;
+    }
+
+    public String report(String engineName, double seconds) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%d ticks from %d games replayed through %s in %.1f s%n",
+                ticks, sessions.size(), engineName, seconds));
+        out.append(String.format(Locale.ROOT, "same move: %.1f%%%n", ticks == 0 ? 0.0 : 100.0 * agreed / ticks));
+        for (int version = 0; version < byVersion.length; version++) {
+            if (byVersion[version] > 0) {
+                out.append(String.format(Locale.ROOT, "  recorded by v%d: %d ticks, %.1f%% same%n",
+                        version, byVersion[version], 100.0 * agreedByVersion[version] / byVersion[version]));
+            }
+        }
+        out.append(String.format(Locale.ROOT, "%-9s %9s %9s %9s %9s%n", "latency", "meanUs", "p50Us", "p99Us", "maxUs"));
+        out.append(latency("recorded", recorded));
+        out.append(latency("replayed", replayed));
+
+        if (!slowest.isEmpty()) {
+            List<long[]> ordered = new ArrayList<>(slowest);
+            ordered.sort((a, b) -> Long.compare(b[0], a[0]));
+            out.append("slowest recorded ticks:\n");
+            for (long[] tick : ordered) {
+                out.append(String.format(Locale.ROOT, "  %9.1f us  game %d  at %d  v%d  %s%n",
+                        tick[0] / 1000.0, tick[1], tick[2], tick[3], Moves.name((int) tick[4])));
+            }
+        }
+        return out.toString();
+    }
+
+    private static String latency(String label, LatencyHistogram histogram) {
+        return String.format(Locale.ROOT, "%-9s %9.1f %9.1f %9.1f %9.1f%n", label, histogram.mean() / 1000,
+                histogram.percentile(0.50) / 1000.0, histogram.percentile(0.99) / 1000.0, histogram.max() / 1000.0);
+    }
+}
@@ -0,0 +1,202 @@
+package com.team.name.bestrestservice.sim;
+
+import com.team.name.bestrestservice.DecisionEngine;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.SpaceshipAiV0;
+import com.team.name.bestrestservice.metrics.LatencyHistogram;
+import com.team.name.bestrestservice.search.SearchAI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+// Plays seeded matches between engines across all cores and prints win
+// rates and decision latency per engine.
+//
+//   mvn -Ptournament verify -Dtournament.args="--engines v0,v1,search --matches 2000"
+//
+// Other options: --seed, --threads, --size (board side), --ships, --ticks,
+// --narrowing (ticks between narrowings) and --budget-ms (SearchAI time
+// budget).
+//
+// Seats are dealt round-robin and rotated every match, so no engine keeps
+// the same seat or the same neighbours.
+public final class Tournament {
+
+    private final String[] names;
+    private final DecisionEngine[] engines;
+    private final Arena.Settings settings;
+    private final int matches;
+    private final long seed;
+    private final int threads;
+
+    private final LatencyHistogram[] latencies;
+    private final LongAdder[] seatsPlayed;
+    private final LongAdder[] wins;
+    private final LongAdder[] points;
+    private final LongAdder[] kills;
+    private final LongAdder[] survived;
+    private final LongAdder draws = new LongAdder();
+
+    public Tournament(String[] names, DecisionEngine[] engines, Arena.Settings settings, int matches, long seed, int threads) {
+        this.names = names;
+        this.engines = engines;
+        this.settings = settings;
+        this.matches = matches;
+        this.seed = seed;
+        this.threads = threads;
+        this.latencies = new LatencyHistogram[engines.length];
+        this.seatsPlayed = adders(engines.length);
+        this.wins = adders(engines.length);
+        this.points = adders(engines.length);
+        this.kills = adders(engines.length);
+        this.survived = adders(engines.length);
+        for (int i = 0; i < engines.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Arena.Settings settings = new Arena.Settings();
+        String engineList = "v0,v1";
+        int matches = 1000;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long budgetMillis = 10;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--engines":
+                    engineList = value;
+                    break;
+                case "--matches":
+                    matches = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--size":
+                    settings.size = Integer.parseInt(value);
+                    break;
+                case "--ships":
+                    settings.ships = Integer.parseInt(value);
+                    break;
+                case "--ticks":
+                    settings.maxTicks = Integer.parseInt(value);
+                    break;
+                case "--narrowing":
+                    settings.narrowingPeriod = Integer.parseInt(value);
+                    break;
+                case "--budget-ms":
+                    budgetMillis = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        String[] names = engineList.split(",");
+        DecisionEngine[] engines = new DecisionEngine[names.length];
+        for (int i = 0; i < names.length; i++) {
+            engines[i] = engine(names[i].trim(), budgetMillis);
+        }
+        Tournament tournament = new Tournament(names, engines, settings, matches, seed, threads);
+        long started = System.nanoTime();
+        tournament.run();
+        System.out.print(tournament.report((System.nanoTime() - started) / 1e9));
+    }
+
+    static DecisionEngine engine(String name, long budgetMillis) {
+        switch (name) {
+            case "v0":
+                return new SpaceshipAiV0();
+            case "v1":
+                return new SpaceshipAI();
+            case "search":
+                return new SearchAI(budgetMillis);
+            default:
+                throw new IllegalArgumentException("Unknown engine " + name + ", expected v0, v1 or search");
+        }
+    }
+
+    public void run() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>(matches);
+            for (int m = 0; m < matches; m++) {
+                int match = m;
+                results.add(executor.submit(() -> play(match)));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void play(int match) {
+        int ships = settings.ships;
+        int[] engineOf = new int[ships];
+        DecisionEngine[] seats = new DecisionEngine[ships];
+        LatencyHistogram[] seatLatencies = new LatencyHistogram[ships];
+        for (int seat = 0; seat < ships; seat++) {
+            engineOf[seat] = (seat + match) % engines.length;
+            seats[seat] = engines[engineOf[seat]];
+            seatLatencies[seat] = latencies[engineOf[seat]];
+        }
+
+        Match game = new Match(new Arena(settings, seed + match), seats, seatLatencies, match * ships);
+        int winner = game.play();
+        Arena arena = game.arena();
+        for (int seat = 0; seat < ships; seat++) {
+            int engine = engineOf[seat];
+            seatsPlayed[engine].increment();
+            points[engine].add(arena.points(seat));
+            kills[engine].add(arena.kills(seat));
+            if (arena.alive(seat)) {
+                survived[engine].increment();
+            }
+        }
+        if (winner == Match.DRAW) {
+            draws.increment();
+        } else {
+            wins[engineOf[winner]].increment();
+        }
+    }
+
+    public String report(double seconds) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%d matches, %d ships, %d ticks max, seed %d, %d threads, %.1f s%n",
+                matches, settings.ships, settings.maxTicks, seed, threads, seconds));
+        out.append(String.format(Locale.ROOT, "%-8s %7s %8s %7s %7s %9s %8s %8s %8s %8s%n",
+                "engine", "seats", "winRate", "points", "kills", "survival", "meanUs", "p50Us", "p99Us", "maxUs"));
+        for (int i = 0; i < engines.length; i++) {
+            long seatCount = Math.max(1, seatsPlayed[i].sum());
+            LatencyHistogram latency = latencies[i];
+            out.append(String.format(Locale.ROOT, "%-8s %7d %7.1f%% %7.2f %7.2f %8.1f%% %8.1f %8.1f %8.1f %8.1f%n",
+                    names[i], seatsPlayed[i].sum(), 100.0 * wins[i].sum() / matches,
+                    (double) points[i].sum() / seatCount, (double) kills[i].sum() / seatCount,
+                    100.0 * survived[i].sum() / seatCount,
+                    latency.mean() / 1000, latency.percentile(0.50) / 1000.0,
+                    latency.percentile(0.99) / 1000.0, latency.max() / 1000.0));
+        }
+        out.append(String.format(Locale.ROOT, "draws    %7.1f%%%n", 100.0 * draws.sum() / matches));
+        return out.toString();
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
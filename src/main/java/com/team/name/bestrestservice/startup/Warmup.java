@@ -0,0 +1,190 @@
+package com.team.name.bestrestservice.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.BoardCorpus;
+import com.team.name.bestrestservice.GameSession;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import com.team.name.bestrestservice.routing.EngineRegistry;
+import com.team.name.bestrestservice.routing.LoadGovernor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Runs every engine over the board corpus once the server is up, then sends a
+// few /move requests through the server itself, so the first real ticks after
+// a restart hit compiled code; /healthz reports OK only after. Warmup decides
+// under a negative game id, which the journal skips, and the metrics and load
+// window are cleared once it is done.
+@Component
+public class Warmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(Warmup.class);
+
+    private static final long SEED = 7;
+    // Below zero, so warmup never shares anything with a real game
+    private static final int GAME_ID = -1;
+    // Pause before trying again while the connector does not answer yet
+    private static final long RETRY_MILLIS = 50;
+
+    private final EngineRegistry engines;
+    private final LoadGovernor governor;
+    private final DecisionMetrics metrics;
+    private final ObjectMapper mapper;
+    private final ConfigurableApplicationContext context;
+    private final boolean enabled;
+    private final int boards;
+    private final int requests;
+    private final long searchNanos;
+    private final long maxNanos;
+    private final Duration requestTimeout;
+    private final boolean exit;
+
+    private volatile boolean warm;
+
+    public Warmup(EngineRegistry engines, LoadGovernor governor, DecisionMetrics metrics, ObjectMapper mapper,
+                  ConfigurableApplicationContext context,
+                  @Value("${warmup.enabled:true}") boolean enabled,
+                  @Value("${warmup.boards:64}") int boards,
+                  @Value("${warmup.requests:32}") int requests,
+                  @Value("${warmup.search-ms:2}") long searchMillis,
+                  @Value("${warmup.max-ms:5000}") long maxMillis,
+                  @Value("${warmup.request-timeout-ms:2000}") long requestTimeoutMillis,
+                  @Value("${warmup.exit:false}") boolean exit) {
+        this.engines = engines;
+        this.governor = governor;
+        this.metrics = metrics;
+        this.mapper = mapper;
+        this.context = context;
+        this.enabled = enabled;
+        this.boards = boards;
+        this.requests = requests;
+        this.searchNanos = TimeUnit.MILLISECONDS.toNanos(searchMillis);
+        this.maxNanos = TimeUnit.MILLISECONDS.toNanos(maxMillis);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.exit = exit;
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        int decisions = 0;
+        int served = 0;
+        if (enabled) {
+            decisions = warmUp(started + maxNanos);
+            served = warmUpServer(started + maxNanos);
+            metrics.reset();
+            governor.reset();
+        }
+        warm = true;
+        log.info("Warmed up with {} decisions and {} requests in {} ms", decisions, served,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        if (exit) {
+            // Training run for a class-data archive: the JVM dumps it on the way out
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    // Plays each corpus kind as one game, so the session caches and trackers
+    // are exercised the way consecutive ticks exercise them, and passes every
+    // board through the JSON reader the controllers use
+    private int warmUp(long until) {
+        int decisions = 0;
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (BoardCorpus.Kind kind : BoardCorpus.Kind.values()) {
+            GameSession session = new GameSession(GAME_ID);
+            List<String[][]> fields = BoardCorpus.boards(kind, boards, random.nextLong());
+            for (int i = 0; i < fields.size(); i++) {
+                if (System.nanoTime() - until > 0) {
+                    return decisions;
+                }
+                SpaceshipAI.GameStatus parsed = parse(fields.get(i), boards - i);
+                Board board = parsed.getBoard();
+                session.advance(board, boards - i);
+                for (int version = 0; version < engines.size(); version++) {
+                    SpaceshipAI.GameStatus status = new SpaceshipAI.GameStatus(board, boards - i, GAME_ID);
+                    status.attach(session);
+                    status.setDeadline(System.nanoTime() + searchNanos);
+                    engines.get(version).decideMove(status);
+                    decisions++;
+                }
+            }
+        }
+        return decisions;
+    }
+
+    // The request path (connector, message conversion, dispatcher) only gets
+    // compiled by serving requests; these are decided under the warmup game id.
+    // Until one gets an answer the connector may still be starting, so a
+    // failed request is tried again; after that a failure ends the requests.
+    private int warmUpServer(long until) {
+        Integer port = context.getEnvironment().getProperty("local.server.port", Integer.class);
+        if (port == null || port <= 0) {
+            return 0;
+        }
+        HttpClient client = HttpClient.newBuilder().connectTimeout(requestTimeout).build();
+        URI uri = URI.create("http://localhost:" + port + "/move");
+        List<String[][]> fields = BoardCorpus.boards(BoardCorpus.Kind.OPEN, requests, SEED);
+        int served = 0;
+        try {
+            int i = 0;
+            while (i < fields.size() && System.nanoTime() - until < 0) {
+                String body = mapper.writeValueAsString(new SpaceshipAI.GameStatus(fields.get(i), requests - i, GAME_ID));
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .timeout(requestTimeout)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                try {
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                } catch (IOException e) {
+                    if (served > 0) {
+                        throw e;
+                    }
+                    Thread.sleep(RETRY_MILLIS);
+                    continue;
+                }
+                served++;
+                i++;
+            }
+        } catch (IOException e) {
+            log.warn("Warmup requests stopped after {}: {}", served, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (served == 0 && requests > 0) {
+            log.warn("Warmup requests got no answer before the warmup time ran out");
+        }
+        return served;
+    }
+
+    private SpaceshipAI.GameStatus parse(String[][] field, int narrowingIn) {
+        try {
+            String body = mapper.writeValueAsString(new SpaceshipAI.GameStatus(field, narrowingIn, GAME_ID));
+            return mapper.readValue(body, SpaceshipAI.GameStatus.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.team.name.bestrestservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.team.name.bestrestservice.controller.TaskResolveController;
+import com.team.name.bestrestservice.journal.DecisionJournal;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import com.team.name.bestrestservice.routing.EngineRegistry;
+import com.team.name.bestrestservice.routing.LoadGovernor;
+import com.team.name.bestrestservice.routing.MoveDispatcher;
+import com.team.name.bestrestservice.routing.Ponderer;
+import com.team.name.bestrestservice.routing.VersionRouter;
+import com.team.name.bestrestservice.search.SearchPool;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardDeltaTests {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void appliesChangesListedInAnyOrder() throws Exception {
+		Board base = Board.of(BoardCorpus.boards(BoardCorpus.Kind.CROWDED, 1, 16).get(0));
+		String[][] field = base.toField();
+		field[12][12] = "C";
+		field[0][5] = "A";
+		field[3][0] = "_";
+		Board expected = Board.of(field);
+
+		BoardDelta delta = read(3, "[[12,12,\"C\"],[0,3,\"_\"],[5,0,\"A\"]]", expected.checksum());
+		Board applied = delta.applyTo(base);
+
+		assertEquals(3, delta.getGameId());
+		assertTrue(applied.sameCells(expected));
+		assertTrue(delta.matches(applied));
+	}
+
+	@Test
+	void checksumMustMatchTheResult() throws Exception {
+		Board base = Board.of(BoardCorpus.boards(BoardCorpus.Kind.OPEN, 1, 16).get(0));
+
+		BoardDelta wrong = read(3, "[[1,1,\"C\"]]", base.checksum());
+		BoardDelta missing = mapper.readValue("{\"gameId\":3,\"changes\":[[1,1,\"C\"]]}", BoardDelta.class);
+
+		assertFalse(wrong.matches(wrong.applyTo(base)));
+		assertFalse(missing.matches(missing.applyTo(base)));
+	}
+
+	@Test
+	void refusesChangesOffTheBoardOrMoreThanItHasCells() throws Exception {
+		Board base = Board.of(BoardCorpus.boards(BoardCorpus.Kind.OPEN, 1, 16).get(0));
+
+		// Within the largest board, so only the base board can tell it is off
+		BoardDelta offBoard = read(3, "[[13,0,\"C\"]]", 0);
+		assertThrows(IllegalArgumentException.class, () -> offBoard.applyTo(base));
+		assertThrows(MismatchedInputException.class, () -> read(3, "[[-1,0,\"C\"]]", 0));
+		assertThrows(MismatchedInputException.class, () -> read(3, "[[" + Board.MAX_SIZE + ",0,\"C\"]]", 0));
+
+		StringBuilder changes = new StringBuilder("[");
+		for (int i = 0; i <= base.cellCount(); i++) {
+			changes.append(i > 0 ? "," : "").append("[").append(i % Board.SIZE).append(",0,\"_\"]");
+		}
+		BoardDelta tooMany = read(3, changes.append("]").toString(), 0);
+		assertThrows(IllegalArgumentException.class, () -> tooMany.applyTo(base));
+	}
+
+	@Test
+	void deltaThatDoesNotApplyAsksForTheFullBoard() throws Exception {
+		Board base = Board.of(BoardCorpus.boards(BoardCorpus.Kind.OPEN, 1, 16).get(0));
+		String[][] field = base.toField();
+		field[12][12] = "C";
+		long checksum = Board.of(field).checksum();
+
+		SearchPool pool = new SearchPool(1, 0);
+		DecisionMetrics metrics = new DecisionMetrics();
+		EngineRegistry engines = new EngineRegistry(pool, metrics, 5);
+		LoadGovernor governor = new LoadGovernor(60, 1000, 0, 0);
+		GameSessionCache sessions = new GameSessionCache(16, 300, 3600, 1 << 20);
+		Ponderer ponderer = new Ponderer(engines, governor, metrics, false, 1, 1, 1, 4096, 5);
+		MoveDispatcher dispatcher = new MoveDispatcher(sessions, engines, new VersionRouter(), governor,
+				new DecisionJournal(false, "journal", 1, 1), ponderer, metrics, 0);
+		TaskResolveController controller = new TaskResolveController(sessions, engines, new VersionRouter(),
+				dispatcher, null, governor, null, metrics);
+		try {
+			String delta = "[[12,12,\"C\"]]";
+			// No board yet for this game
+			assertEquals(HttpStatus.CONFLICT, controller.moveDelta(read(9, delta, checksum)).getStatusCode());
+
+			dispatcher.decide(new SpaceshipAI.GameStatus(base.toField(), 20, 9));
+			assertEquals(HttpStatus.CONFLICT, controller.moveDelta(read(9, delta, checksum + 1)).getStatusCode());
+			ResponseEntity<byte[]> answer = controller.moveDelta(read(9, delta, checksum));
+			assertEquals(HttpStatus.OK, answer.getStatusCode());
+
+			// The patched board is now the game's board
+			assertNotEquals(Moves.NONE, dispatcher.decide(read(9, "[]", checksum)));
+		} finally {
+			dispatcher.shutdown();
+			ponderer.shutdown();
+			sessions.shutdown();
+			pool.shutdown();
+		}
+	}
+
+	private BoardDelta read(int gameId, String changes, long checksum) throws Exception {
+		String json = "{\"gameId\":" + gameId + ",\"narrowingIn\":20,\"changes\":" + changes + ",\"checksum\":" + checksum + "}";
+		return mapper.readValue(json, BoardDelta.class);
+	}
+}
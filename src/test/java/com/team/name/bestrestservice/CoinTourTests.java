@@ -0,0 +1,51 @@
+package com.team.name.bestrestservice;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CoinTourTests {
+
+	@Test
+	void visitsCoinsAlongTheRowAndRepairsWhenOneIsTaken() {
+		String[][] field = emptyField();
+		field[6][0] = "PE";
+		field[6][9] = "C";
+		field[6][3] = "C";
+		field[6][12] = "C";
+		field[6][6] = "C";
+		Board board = Board.of(field);
+
+		CoinTour tour = CoinTour.of(board, new DistanceField().compute(board));
+
+		assertEquals(4, tour.size());
+		assertEquals(board.index(3, 6), tour.coin(0));
+		assertEquals(board.index(6, 6), tour.coin(1));
+		assertEquals(board.index(9, 6), tour.coin(2));
+		assertEquals(board.index(12, 6), tour.coin(3));
+		assertEquals(12, tour.length());
+
+		// The ship takes the first coin and a new one shows up between two others
+		field[6][0] = "_";
+		field[6][3] = "PE";
+		field[6][11] = "C";
+		Board next = Board.of(field);
+		tour.update(next, new DistanceField().compute(next), false);
+
+		assertEquals(4, tour.size());
+		assertEquals(next.index(6, 6), tour.coin(0));
+		assertEquals(next.index(11, 6), tour.coin(2));
+		assertEquals(next.index(12, 6), tour.coin(3));
+		assertEquals(next.index(6, 6), tour.next(null, 0));
+	}
+
+	private static String[][] emptyField() {
+		String[][] field = new String[Board.SIZE][Board.SIZE];
+		for (String[] row : field) {
+			Arrays.fill(row, "_");
+		}
+		return field;
+	}
+}
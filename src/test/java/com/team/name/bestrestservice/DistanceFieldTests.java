@@ -0,0 +1,92 @@
+package com.team.name.bestrestservice;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DistanceFieldTests {
+
+	@Test
+	void matchesABreadthFirstSearchOnCorpusBoards() {
+		for (BoardCorpus.Kind kind : BoardCorpus.Kind.values()) {
+			for (String[][] field : BoardCorpus.boards(kind, 40, 11)) {
+				Board board = Board.of(field);
+				DistanceField distances = new DistanceField().compute(board);
+				int[] expected = PathfinderTests.distances(board, board.player(), board.playerHeading());
+				for (int cell = 0; cell < board.cellCount(); cell++) {
+					assertCell(board, distances, expected, cell, kind.toString());
+				}
+			}
+		}
+	}
+
+	@Test
+	void routesPastTheFloodBudgetComeFromThePathfinder() {
+		// 100x100 has more states than the flood may take, so the far side of
+		// the board is answered by Pathfinder
+		for (BoardCorpus.Kind kind : BoardCorpus.Kind.values()) {
+			Board board = Board.of(BoardCorpus.boards(kind, 1, 11, 100).get(0));
+			DistanceField distances = new DistanceField().compute(board);
+			int[] expected = PathfinderTests.distances(board, board.player(), board.playerHeading());
+			for (int cell = board.cellCount() - 1; cell >= 0; cell -= 613) {
+				assertCell(board, distances, expected, cell, kind.toString());
+			}
+		}
+	}
+
+	@Test
+	void rebindKeepsTheRoutesForTheNewBoard() {
+		Board board = null;
+		DistanceField distances = new DistanceField();
+		for (String[][] field : BoardCorpus.boards(BoardCorpus.Kind.CLUTTERED, 20, 4)) {
+			board = Board.of(field);
+			distances.compute(board);
+			int reachable = 0;
+			for (int i = 0; i < board.coinCount(); i++) {
+				reachable += distances.reachable(board.coin(i)) ? 1 : 0;
+			}
+			if (reachable >= 2) {
+				break;
+			}
+		}
+		int taken = distances.nearestCoin();
+		String[][] field = board.toField();
+		field[board.y(taken)][board.x(taken)] = "_";
+		Board next = Board.of(field);
+		int[] before = new int[board.cellCount()];
+		for (int cell = 0; cell < board.cellCount(); cell++) {
+			before[cell] = distances.distance(cell);
+		}
+
+		assertSame(distances, distances.rebind(next));
+		assertSame(next, distances.board());
+		for (int cell = 0; cell < board.cellCount(); cell++) {
+			assertEquals(before[cell], distances.distance(cell));
+		}
+		// The nearest coin now comes from the new board
+		int nearest = distances.nearestCoin();
+		assertNotEquals(taken, nearest);
+		for (int i = 0; i < next.coinCount(); i++) {
+			assertTrue(distances.distance(nearest) <= distances.distance(next.coin(i)));
+		}
+	}
+
+	private static void assertCell(Board board, DistanceField distances, int[] expected, int cell, String at) {
+		String where = at + " " + board.width() + " cell " + cell;
+		int best = cell == board.player() || board.isPassable(cell) ? PathfinderTests.closest(expected, cell) : -1;
+		if (best == -1) {
+			assertEquals(DistanceField.UNREACHABLE, distances.distance(cell), where);
+			assertEquals(Moves.NONE, distances.firstMove(cell), where);
+			return;
+		}
+		assertEquals(best, distances.distance(cell), where);
+		PathfinderTests.assertFirstMoveLeads(board, board.player(), board.playerHeading(), distances.firstMove(cell), cell, best, where);
+		for (int h = 0; h < 4; h++) {
+			int state = expected[cell << 2 | h];
+			assertEquals(state == -1 ? DistanceField.UNREACHABLE : state, distances.distance(cell, h), where);
+		}
+	}
+}
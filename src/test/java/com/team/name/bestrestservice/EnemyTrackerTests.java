@@ -0,0 +1,96 @@
+package com.team.name.bestrestservice;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EnemyTrackerTests {
+
+	private static final float EPSILON = 1e-6f;
+
+	@Test
+	void freshTrackPredictsFromThePriors() {
+		EnemyTracker tracker = new EnemyTracker();
+		Board board = board(Board.SIZE, 5, 5, "EE");
+		tracker.update(board);
+
+		assertEquals(1, tracker.count());
+		assertEquals(board.index(5, 5), tracker.cell(0));
+		assertEquals(Board.EAST, tracker.heading(0));
+		assertEquals(0, tracker.observations(0));
+		assertEquals(0.4f, tracker.probability(0, EnemyTracker.MOVE), EPSILON);
+		assertEquals(0.2f, tracker.probability(0, EnemyTracker.LEFT), EPSILON);
+		assertEquals(0.2f, tracker.probability(0, EnemyTracker.RIGHT), EPSILON);
+		assertEquals(0.2f, tracker.probability(0, EnemyTracker.HOLD), EPSILON);
+		assertEquals(0.6f, tracker.occupancy(board.index(5, 5)), EPSILON);
+		assertEquals(0.4f, tracker.occupancy(board.index(6, 5)), EPSILON);
+	}
+
+	@Test
+	void followsAShipAndLearnsWhatItDoes() {
+		EnemyTracker tracker = new EnemyTracker();
+		tracker.update(board(Board.SIZE, 5, 5, "EE"));
+
+		Board moved = board(Board.SIZE, 6, 5, "EE");
+		tracker.update(moved);
+		assertEquals(1, tracker.observations(0));
+		assertEquals(0.5f, tracker.probability(0, EnemyTracker.MOVE), EPSILON);
+		// The cell it left no longer counts
+		assertEquals(0f, tracker.occupancy(moved.index(5, 5)), EPSILON);
+		assertEquals(0.5f, tracker.occupancy(moved.index(6, 5)), EPSILON);
+		assertEquals(0.5f, tracker.occupancy(moved.index(7, 5)), EPSILON);
+
+		tracker.update(board(Board.SIZE, 6, 5, "ES"));
+		assertEquals(Board.SOUTH, tracker.heading(0));
+		assertEquals(2f / 7f, tracker.probability(0, EnemyTracker.RIGHT), EPSILON);
+
+		// A ship that keeps still wears the move prior down
+		Board held = board(Board.SIZE, 6, 5, "ES");
+		for (int tick = 0; tick < 5; tick++) {
+			tracker.update(held);
+		}
+		assertEquals(7, tracker.observations(0));
+		assertEquals(0.5f, tracker.probability(0, EnemyTracker.HOLD), EPSILON);
+		assertEquals(0.25f, tracker.probability(0, EnemyTracker.MOVE), EPSILON);
+
+		// Lined up below it and in range, or off to the side
+		assertEquals(0.5f, tracker.threat(held.index(6, 7)), EPSILON);
+		assertEquals(0f, tracker.threat(held.index(7, 7)), EPSILON);
+		// A shot north from (6, 9) passes where it stands and where it would move to
+		assertEquals(1f, tracker.expectedHits(held.index(6, 9), Board.NORTH), EPSILON);
+	}
+
+	@Test
+	void startsOverForAShipThatAppearsOrAnotherArena() {
+		EnemyTracker tracker = new EnemyTracker();
+		tracker.update(board(Board.SIZE, 5, 5, "EE"));
+		tracker.update(board(Board.SIZE, 6, 5, "EE"));
+		assertEquals(1, tracker.observations(0));
+
+		// Nowhere near where the last one was
+		tracker.update(board(Board.SIZE, 1, 10, "EE"));
+		assertEquals(0, tracker.observations(0));
+
+		tracker.update(board(Board.SIZE, 2, 10, "EE"));
+		assertEquals(1, tracker.observations(0));
+		Board larger = board(20, 2, 10, "EE");
+		tracker.update(larger);
+		assertEquals(1, tracker.count());
+		assertEquals(0, tracker.observations(0));
+		assertEquals(0.6f, tracker.occupancy(larger.index(2, 10)), EPSILON);
+		assertEquals(0f, tracker.occupancy(larger.index(5, 5)), EPSILON);
+	}
+
+	// An empty square arena with the player in a corner and one enemy
+	private static Board board(int size, int x, int y, String enemy) {
+		String[][] field = new String[size][size];
+		for (String[] row : field) {
+			Arrays.fill(row, "_");
+		}
+		field[size - 1][0] = "PN";
+		field[y][x] = enemy;
+		return Board.of(field);
+	}
+}
@@ -0,0 +1,86 @@
+package com.team.name.bestrestservice;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameSessionCacheTests {
+
+	@Test
+	void keepsLockedSessionsWhenOverCapacity() {
+		GameSessionCache cache = new GameSessionCache(2, 300, 3600, 1 << 20);
+		try {
+			GameSession playing = cache.lock(1);
+			for (int game = 2; game <= 4; game++) {
+				cache.lock(game).lock().unlock();
+			}
+
+			cache.sweep();
+
+			// Game 1 is the least recently used but still holds its lock
+			assertEquals(2, cache.size());
+			playing.lock().unlock();
+			assertSame(playing, cache.lock(1));
+			playing.lock().unlock();
+		} finally {
+			cache.shutdown();
+		}
+	}
+
+	@Test
+	void dropsIdleSessionsAndNeverHandsOutADroppedOne() {
+		GameSessionCache cache = new GameSessionCache(16, 0, 3600, 1 << 20);
+		try {
+			GameSession first = cache.lock(7);
+			first.lock().unlock();
+
+			cache.sweep();
+
+			assertEquals(0, cache.size());
+			assertTrue(first.isEvicted());
+			GameSession second = cache.lock(7);
+			assertNotSame(first, second);
+			second.lock().unlock();
+		} finally {
+			cache.shutdown();
+		}
+	}
+
+	@Test
+	void dropsTheLeastRecentlyUsedGamesOverTheCellBudget() {
+		GameSessionCache cache = new GameSessionCache(16, 300, 3600, 25_000);
+		try {
+			for (int game = 1; game <= 3; game++) {
+				GameSession session = cache.lock(game);
+				session.advance(board(100));
+				session.lock().unlock();
+			}
+			assertEquals(30_000, cache.cells());
+
+			cache.sweep();
+
+			// Under the count limit, but game 1 alone takes the cells back under budget
+			assertEquals(2, cache.size());
+			assertEquals(20_000, cache.cells());
+			GameSession first = cache.lock(1);
+			assertEquals(0, first.cells());
+			first.lock().unlock();
+		} finally {
+			cache.shutdown();
+		}
+	}
+
+	private static Board board(int size) {
+		String[][] field = new String[size][size];
+		for (String[] row : field) {
+			Arrays.fill(row, "_");
+		}
+		field[0][0] = "PN";
+		return Board.of(field);
+	}
+}
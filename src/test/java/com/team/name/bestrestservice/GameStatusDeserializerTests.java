@@ -0,0 +1,54 @@
+package com.team.name.bestrestservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameStatusDeserializerTests {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void streamedBoardMatchesEncodedField() throws Exception {
+		SplittableRandom random = new SplittableRandom(1);
+		for (BoardCorpus.Kind kind : BoardCorpus.Kind.values()) {
+			String[][] field = BoardCorpus.board(kind, random);
+			String json = mapper.writeValueAsString(new SpaceshipAI.GameStatus(field, 5, 42));
+
+			SpaceshipAI.GameStatus parsed = mapper.readValue(json, SpaceshipAI.GameStatus.class);
+
+			assertEquals(5, parsed.getNarrowingIn());
+			assertEquals(42, parsed.getGameId());
+			assertArrayEquals(field, parsed.getField());
+			Board expected = Board.of(field);
+			for (int i = 0; i < Board.CELLS; i++) {
+				assertEquals(expected.cell(i), parsed.getBoard().cell(i));
+			}
+			assertEquals(expected.player(), parsed.getBoard().player());
+			assertEquals(expected.enemyCount(), parsed.getBoard().enemyCount());
+			assertEquals(expected.coinCount(), parsed.getBoard().coinCount());
+		}
+	}
+
+	@Test
+	void skipsUnknownValuesAndToleratesNulls() throws Exception {
+		String json = "{\"gameId\":3,\"extra\":{\"a\":[1,2]},\"field\":[[\"PN\",null],null,[\"A\",{\"x\":1},\"EW\"]],\"narrowingIn\":null}";
+
+		SpaceshipAI.GameStatus parsed = mapper.readValue(json, SpaceshipAI.GameStatus.class);
+
+		Board board = parsed.getBoard();
+		assertEquals(3, parsed.getGameId());
+		assertEquals(0, parsed.getNarrowingIn());
+		// Three rows, the longest three cells long
+		assertEquals(3, board.width());
+		assertEquals(3, board.height());
+		assertEquals(board.index(0, 0), board.player());
+		assertEquals(Board.NORTH, board.playerHeading());
+		assertEquals(Board.ASTEROID, board.type(board.index(0, 2)));
+		assertEquals(board.index(2, 2), board.enemy(0));
+	}
+}
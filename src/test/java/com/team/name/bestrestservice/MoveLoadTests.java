@@ -0,0 +1,110 @@
+package com.team.name.bestrestservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Thousands of games playing /move at once, served by platform threads and then
+// by virtual threads. Slow, so only runs when asked for:
+//   mvn test -Dtest=MoveLoadTests -Dloadtest=true [-Dloadtest.games=2000 -Dloadtest.ticks=20]
+// Virtual threads need the tests to run on Java 21; on 17 both runs use the platform pool.
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class MoveLoadTests {
+
+	private final int games = Integer.getInteger("loadtest.games", 2000);
+	private final int ticks = Integer.getInteger("loadtest.ticks", 20);
+
+	@Test
+	void tailLatencyPlatformVersusVirtualThreads() throws Exception {
+		String[] fields = fields();
+		System.out.printf("%d games x %d ticks on Java %d%n", games, ticks, Runtime.version().feature());
+		System.out.printf("%-10s %10s %10s %10s %10s %10s %12s%n", "threads", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "req/s");
+		run("platform", false, fields);
+		run("virtual", true, fields);
+	}
+
+	private void run(String label, boolean virtualThreads, String[] fields) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BestRestServiceApplication.class)
+				.properties("server.port=0", "spring.threads.virtual.enabled=" + virtualThreads,
+						"sessions.max-games=" + games * 2, "logging.level.root=WARN")
+				.run()) {
+			int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+			URI uri = URI.create("http://localhost:" + port + "/move");
+			HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+			// Warm the server up before measuring
+			play(client, uri, fields, Math.min(games, 200), new long[Math.min(games, 200) * ticks]);
+
+			long[] latencies = new long[games * ticks];
+			long started = System.nanoTime();
+			int failed = play(client, uri, fields, games, latencies);
+			double seconds = (System.nanoTime() - started) / 1e9;
+
+			Arrays.sort(latencies);
+			System.out.printf("%-10s %10.2f %10.2f %10.2f %10.2f %10.2f %12.0f%n", label,
+					percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+					percentile(latencies, 0.999), latencies[latencies.length - 1] / 1e6, latencies.length / seconds);
+			assertEquals(0, failed, label + " run had failed requests");
+		}
+	}
+
+	// Every game sends its ticks one after another, all games at once
+	private int play(HttpClient client, URI uri, String[] fields, int gameCount, long[] latencies) {
+		AtomicInteger recorded = new AtomicInteger();
+		AtomicInteger failed = new AtomicInteger();
+		CompletableFuture<?>[] running = new CompletableFuture<?>[gameCount];
+		for (int game = 0; game < gameCount; game++) {
+			CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+			for (int tick = 0; tick < ticks; tick++) {
+				String body = "{\"gameId\":" + game + ",\"narrowingIn\":10,\"field\":" + fields[(game + tick) % fields.length] + "}";
+				HttpRequest request = HttpRequest.newBuilder(uri)
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString(body))
+						.build();
+				chain = chain.thenCompose(ignored -> {
+					long sent = System.nanoTime();
+					return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+							.handle((response, error) -> {
+								latencies[recorded.getAndIncrement()] = System.nanoTime() - sent;
+								if (error != null || response.statusCode() != 200) {
+									failed.incrementAndGet();
+								}
+								return null;
+							});
+				});
+			}
+			running[game] = chain;
+		}
+		CompletableFuture.allOf(running).join();
+		return failed.get();
+	}
+
+	private String[] fields() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		List<String[][]> boards = BoardCorpus.boards(BoardCorpus.Kind.CROWDED, 64, 11);
+		String[] fields = new String[boards.size()];
+		for (int i = 0; i < fields.length; i++) {
+			fields[i] = mapper.writeValueAsString(boards.get(i));
+		}
+		return fields;
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+	}
+}
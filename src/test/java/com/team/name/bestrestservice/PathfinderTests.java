@@ -0,0 +1,148 @@
+package com.team.name.bestrestservice;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathfinderTests {
+
+	@Test
+	void findsTheShortestRouteOnCorpusBoards() {
+		for (int size : new int[]{ Board.SIZE, 80 }) {
+			int count = size == Board.SIZE ? 40 : 2;
+			// Every target on the small boards, a spread of them on the large ones
+			int stride = size == Board.SIZE ? 1 : 97;
+			for (BoardCorpus.Kind kind : BoardCorpus.Kind.values()) {
+				for (String[][] field : BoardCorpus.boards(kind, count, 5, size)) {
+					Board board = Board.of(field);
+					int origin = board.player();
+					int heading = board.playerHeading();
+					int[] expected = distances(board, origin, heading);
+					Pathfinder pathfinder = Pathfinder.acquire();
+					try {
+						for (int target = 0; target < board.cellCount(); target += stride) {
+							if (target != origin && !board.isPassable(target)) {
+								continue;
+							}
+							String at = kind + " " + size + " target " + target;
+							int result = pathfinder.find(board, origin, heading, target, Board.NO_HEADING);
+							int best = closest(expected, target);
+							if (best == -1) {
+								assertEquals(Pathfinder.NO_PATH, result, at);
+								continue;
+							}
+							assertEquals(best, Pathfinder.distance(result), at);
+							assertFirstMoveLeads(board, origin, heading, Pathfinder.firstMove(result), target, best, at);
+
+							int facing = target % 4;
+							int state = expected[target << 2 | facing];
+							int faced = pathfinder.find(board, origin, heading, target, facing);
+							if (state == -1) {
+								assertEquals(Pathfinder.NO_PATH, faced, at);
+							} else {
+								assertEquals(state, Pathfinder.distance(faced), at);
+							}
+						}
+					} finally {
+						Pathfinder.release(pathfinder);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void findsNoRouteIntoAWalledOffCell() {
+		String[][] field = new String[Board.SIZE][Board.SIZE];
+		for (String[] row : field) {
+			Arrays.fill(row, "_");
+		}
+		field[0][0] = "PN";
+		field[5][6] = "A";
+		field[7][6] = "A";
+		field[6][5] = "A";
+		field[6][7] = "A";
+		field[6][6] = "C";
+		Board board = Board.of(field);
+
+		Pathfinder pathfinder = Pathfinder.acquire();
+		try {
+			assertEquals(Pathfinder.NO_PATH, pathfinder.find(board, board.player(), Board.NORTH, board.index(6, 6), Board.NO_HEADING));
+			int result = pathfinder.find(board, board.player(), Board.NORTH, board.index(5, 5), Board.NO_HEADING);
+			assertNotEquals(Pathfinder.NO_PATH, result);
+			assertEquals(closest(distances(board, board.player(), Board.NORTH), board.index(5, 5)), Pathfinder.distance(result));
+		} finally {
+			Pathfinder.release(pathfinder);
+		}
+	}
+
+	// Plain breadth-first search over (cell, heading) states: -1 where a state
+	// cannot be reached
+	static int[] distances(Board board, int origin, int heading) {
+		int[] dist = new int[board.cellCount() * 4];
+		Arrays.fill(dist, -1);
+		int[] queue = new int[dist.length];
+		int tail = 0;
+		for (int h = 0; h < 4; h++) {
+			if (heading == Board.NO_HEADING || heading == h) {
+				dist[origin << 2 | h] = 0;
+				queue[tail++] = origin << 2 | h;
+			}
+		}
+		for (int head = 0; head < tail; head++) {
+			int state = queue[head];
+			int cell = state >> 2;
+			int h = state & 3;
+			int ahead = board.step(cell, h);
+			int[] next = {
+					ahead != -1 && board.isPassable(ahead) ? ahead << 2 | h : -1,
+					cell << 2 | Moves.turn(h, Moves.LEFT),
+					cell << 2 | Moves.turn(h, Moves.RIGHT)
+			};
+			for (int n : next) {
+				if (n != -1 && dist[n] == -1) {
+					dist[n] = dist[state] + 1;
+					queue[tail++] = n;
+				}
+			}
+		}
+		return dist;
+	}
+
+	static int closest(int[] dist, int cell) {
+		int best = -1;
+		for (int h = 0; h < 4; h++) {
+			int d = dist[cell << 2 | h];
+			if (d != -1 && (best == -1 || d < best)) {
+				best = d;
+			}
+		}
+		return best;
+	}
+
+	// The first move must start a route that is still shortest after taking it
+	static void assertFirstMoveLeads(Board board, int origin, int heading, int move, int target, int best, String at) {
+		if (best == 0) {
+			assertEquals(Moves.SKIP, move, at);
+			return;
+		}
+		if (heading == Board.NO_HEADING) {
+			return;
+		}
+		int cell = origin;
+		int h = heading;
+		if (move == Moves.MOVE) {
+			cell = board.step(origin, heading);
+			assertNotEquals(-1, cell, at);
+			assertTrue(board.isPassable(cell), at);
+		} else {
+			assertTrue(move == Moves.LEFT || move == Moves.RIGHT, at);
+			h = Moves.turn(heading, move);
+		}
+		assertEquals(best - 1, closest(distances(board, cell, h), target), at);
+	}
+}
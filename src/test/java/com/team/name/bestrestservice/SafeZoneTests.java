@@ -0,0 +1,61 @@
+package com.team.name.bestrestservice;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SafeZoneTests {
+
+	// Geometry of the standard board every test here plays on
+	private static final Board STANDARD = new Board();
+	private static final int EDGE = STANDARD.index(0, 6);
+	private static final int SECOND_RING = STANDARD.index(1, 6);
+	private static final int CENTER = STANDARD.index(6, 6);
+
+	@Test
+	void schedulesRingsFromTheCountdownAndItsRestarts() {
+		Board board = Board.of(new String[Board.SIZE][Board.SIZE]);
+		SafeZone zone = new SafeZone();
+
+		zone.update(board, 2);
+		assertEquals(2, zone.ticksUntilClosed(EDGE));
+		zone.update(board, 1);
+		zone.update(board, 0);
+		assertEquals(0, zone.ticksUntilClosed(EDGE));
+		assertFalse(zone.isSafe(EDGE, 0));
+
+		// Countdown restarts at 4: the edge is gone and narrowings come every 5 ticks
+		zone.update(board, 4);
+		assertEquals(1, zone.closedRings());
+		assertEquals(4, zone.ticksUntilClosed(SECOND_RING));
+		assertEquals(9, zone.ticksUntilClosed(STANDARD.index(2, 6)));
+		assertTrue(zone.isSafe(SECOND_RING, 3));
+		assertFalse(zone.isSafe(SECOND_RING, 4));
+		assertEquals(SafeZone.NEVER, zone.ticksUntilClosed(CENTER));
+	}
+
+	@Test
+	void treatsAsteroidRingsAsClosedAndSteersInside() {
+		String[][] field = new String[Board.SIZE][Board.SIZE];
+		for (int y = 0; y < Board.SIZE; y++) {
+			for (int x = 0; x < Board.SIZE; x++) {
+				field[y][x] = STANDARD.ring(STANDARD.index(x, y)) == 0 ? "A" : "_";
+			}
+		}
+		field[6][1] = "PN";
+		field[1][6] = "C";
+		Board board = Board.of(field);
+
+		SafeZone zone = SafeZone.of(board, 1);
+		DistanceField distances = DistanceField.of(board);
+
+		assertEquals(1, zone.closedRings());
+		assertEquals(0, zone.ticksUntilClosed(EDGE));
+		// The coin's ring closes next tick, long before we could reach it
+		assertEquals(-1, distances.nearestCoin(zone, SafeZone.MARGIN));
+		int target = distances.nearestSafe(zone, SafeZone.MARGIN);
+		assertTrue(STANDARD.ring(target) >= 2);
+	}
+}
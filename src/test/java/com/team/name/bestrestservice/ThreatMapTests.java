@@ -0,0 +1,90 @@
+package com.team.name.bestrestservice;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ThreatMapTests {
+
+	// Sizes with lookup tables and one past ThreatMap.TABLE_CELLS that walks the rays
+	private static final int[] SIZES = { Board.SIZE, 40, 80 };
+
+	@Test
+	void matchesWalkingTheRaysOnCorpusBoards() {
+		for (int size : SIZES) {
+			int count = size == Board.SIZE ? 250 : 10;
+			for (BoardCorpus.Kind kind : BoardCorpus.Kind.values()) {
+				for (String[][] field : BoardCorpus.boards(kind, count, 18, size)) {
+					Board board = Board.of(field);
+					ThreatMap map = new ThreatMap().compute(board);
+					for (int cell = 0; cell < board.cellCount(); cell++) {
+						for (int heading = 0; heading < 4; heading++) {
+							int targets = targets(board, cell, heading);
+							String at = kind + " " + size + " cell " + cell + " heading " + heading;
+							assertEquals(reach(board, cell, heading), map.reach(cell, heading), at);
+							assertEquals(targets != 0, map.canHit(cell, heading), at);
+							assertEquals(Integer.bitCount(targets), map.hits(cell, heading), at);
+							for (int e = 0; e < board.enemyCount(); e++) {
+								int enemy = board.enemy(e);
+								assertEquals(hits(board, cell, heading, targets, enemy), map.canHit(cell, heading, enemy), at);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void threadMapIsRebuiltForAnotherBoard() {
+		Board first = Board.of(BoardCorpus.boards(BoardCorpus.Kind.CROWDED, 1, 1).get(0));
+		Board second = Board.of(BoardCorpus.boards(BoardCorpus.Kind.CROWDED, 1, 2).get(0));
+
+		ThreatMap map = ThreatMap.of(first);
+		assertSame(map, ThreatMap.of(first));
+		assertSame(first, map.board());
+
+		// Same instance, now answering for the second board
+		assertSame(map, ThreatMap.of(second));
+		assertSame(second, map.board());
+	}
+
+	private static int reach(Board board, int cell, int heading) {
+		int current = cell;
+		for (int d = 0; d < ThreatMap.RANGE; d++) {
+			current = board.step(current, heading);
+			if (current == -1 || board.is(current, Board.ASTEROID)) {
+				return d;
+			}
+		}
+		return ThreatMap.RANGE;
+	}
+
+	// Bit d-1 set for an enemy d steps along the ray
+	private static int targets(Board board, int cell, int heading) {
+		int mask = 0;
+		int current = cell;
+		for (int d = 0; d < reach(board, cell, heading); d++) {
+			current = board.step(current, heading);
+			if (board.is(current, Board.ENEMY)) {
+				mask |= 1 << d;
+			}
+		}
+		return mask;
+	}
+
+	private static boolean hits(Board board, int cell, int heading, int targets, int target) {
+		int current = cell;
+		for (int d = 0; d < ThreatMap.RANGE; d++) {
+			current = board.step(current, heading);
+			if (current == -1) {
+				return false;
+			}
+			if (current == target) {
+				return (targets & 1 << d) != 0;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,129 @@
+package com.team.name.bestrestservice.channel;
+
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.BoardCorpus;
+import com.team.name.bestrestservice.GameSessionCache;
+import com.team.name.bestrestservice.Moves;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.journal.DecisionJournal;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import com.team.name.bestrestservice.routing.EngineRegistry;
+import com.team.name.bestrestservice.routing.LoadGovernor;
+import com.team.name.bestrestservice.routing.MoveDispatcher;
+import com.team.name.bestrestservice.routing.Ponderer;
+import com.team.name.bestrestservice.routing.VersionRouter;
+import com.team.name.bestrestservice.search.SearchPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PlayChannelHandlerTests {
+
+	private SearchPool pool;
+	private GameSessionCache sessions;
+	private Ponderer ponderer;
+	private MoveDispatcher dispatcher;
+	private PlayChannelHandler handler;
+	private WebSocketSession session;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		pool = new SearchPool(1, 0);
+		DecisionMetrics metrics = new DecisionMetrics();
+		EngineRegistry engines = new EngineRegistry(pool, metrics, 5);
+		LoadGovernor governor = new LoadGovernor(60, 1000, 0, 0);
+		sessions = new GameSessionCache(16, 300, 3600, 1 << 20);
+		ponderer = new Ponderer(engines, governor, metrics, false, 1, 1, 1, 4096, 5);
+		dispatcher = new MoveDispatcher(sessions, engines, new VersionRouter(), governor,
+				new DecisionJournal(false, "journal", 1, 1), ponderer, metrics, 0);
+		handler = new PlayChannelHandler(dispatcher);
+		session = mock(WebSocketSession.class);
+		when(session.getAttributes()).thenReturn(new HashMap<>());
+		handler.afterConnectionEstablished(session);
+	}
+
+	@AfterEach
+	void tearDown() {
+		dispatcher.shutdown();
+		ponderer.shutdown();
+		sessions.shutdown();
+		pool.shutdown();
+	}
+
+	@Test
+	void answersFullFramesOfAnySizeAndDeltasAgainstThem() throws Exception {
+		for (int size : new int[]{ Board.SIZE, 7, 40 }) {
+			Board board = Board.of(BoardCorpus.boards(BoardCorpus.Kind.OPEN, 1, size, size).get(0));
+			int expected = Moves.of(dispatcher.decide(new SpaceshipAI.GameStatus(board.toField(), 20, 100 + size)));
+
+			assertEquals(expected, send(full(size, 20, board.width(), board.height(), board)));
+		}
+
+		Board board = Board.of(BoardCorpus.boards(BoardCorpus.Kind.OPEN, 1, 3).get(0));
+		send(full(1, 20, board.width(), board.height(), board));
+		int corner = board.index(12, 12);
+		assertNotEquals(PlayChannelHandler.RESYNC, send(delta(19, new int[]{ corner }, new byte[]{ Board.COIN })));
+	}
+
+	@Test
+	void asksForAFullFrameWhenOneCannotBeApplied() throws Exception {
+		Board board = Board.of(BoardCorpus.boards(BoardCorpus.Kind.OPEN, 1, 3).get(0));
+
+		// Nothing to patch yet
+		assertEquals(PlayChannelHandler.RESYNC, send(delta(19, new int[0], new byte[0])));
+		// The header says 13x13 but the cells are for a smaller board
+		ByteBuffer truncated = full(1, 20, Board.SIZE, Board.SIZE, board);
+		truncated.limit(truncated.limit() - Board.SIZE);
+		assertEquals(PlayChannelHandler.RESYNC, send(truncated));
+		assertEquals(PlayChannelHandler.RESYNC, send(full(1, 20, 0, 0, new Board(1, 1))));
+
+		send(full(1, 20, board.width(), board.height(), board));
+		// Indices out of order, then off the board; each drops the connection's board
+		assertEquals(PlayChannelHandler.RESYNC, send(delta(19, new int[]{ 5, 2 }, new byte[]{ Board.COIN, Board.COIN })));
+		assertEquals(PlayChannelHandler.RESYNC, send(delta(19, new int[0], new byte[0])));
+		send(full(1, 20, board.width(), board.height(), board));
+		assertEquals(PlayChannelHandler.RESYNC, send(delta(19, new int[]{ Board.CELLS }, new byte[]{ Board.COIN })));
+	}
+
+	private int send(ByteBuffer frame) throws Exception {
+		handler.handleMessage(session, new BinaryMessage(frame));
+		ArgumentCaptor<WebSocketMessage<?>> reply = ArgumentCaptor.forClass(WebSocketMessage.class);
+		verify(session, atLeastOnce()).sendMessage(reply.capture());
+		ByteBuffer payload = ((BinaryMessage) reply.getValue()).getPayload();
+		assertEquals(1, payload.remaining());
+		return payload.get(0);
+	}
+
+	private static ByteBuffer full(int gameId, int narrowingIn, int width, int height, Board board) {
+		ByteBuffer frame = ByteBuffer.allocate(13 + board.cellCount());
+		frame.put(PlayChannelHandler.FULL).putInt(gameId).putInt(narrowingIn);
+		frame.putShort((short) width).putShort((short) height);
+		for (int i = 0; i < board.cellCount(); i++) {
+			frame.put(board.cell(i));
+		}
+		return frame.flip();
+	}
+
+	private static ByteBuffer delta(int narrowingIn, int[] indices, byte[] cells) {
+		ByteBuffer frame = ByteBuffer.allocate(9 + indices.length * 5);
+		frame.put(PlayChannelHandler.DELTA).putInt(narrowingIn).putInt(indices.length);
+		for (int i = 0; i < indices.length; i++) {
+			frame.putInt(indices[i]).put(cells[i]);
+		}
+		return frame.flip();
+	}
+}
@@ -0,0 +1,89 @@
+package com.team.name.bestrestservice.journal;
+
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.BoardCorpus;
+import com.team.name.bestrestservice.Moves;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DecisionJournalTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void readsBackEveryRecordAcrossRotatedSegments() throws Exception {
+		List<String[][]> fields = BoardCorpus.boards(BoardCorpus.Kind.CROWDED, 16, 3);
+		DecisionJournal journal = new DecisionJournal(true, directory.toString(), 1, 4);
+		int records = 12_000;
+		for (int i = 0; i < records; i++) {
+			Board board = Board.of(fields.get(i % fields.size()));
+			journal.record(i, i % 40, board, i % 3, i % Moves.COUNT, 0, 1000L * i);
+		}
+		journal.close();
+
+		List<Integer> games = new ArrayList<>();
+		JournalReader.read(directory, entry -> {
+			int i = entry.gameId;
+			games.add(i);
+			assertEquals(i % 40, entry.narrowingIn);
+			assertEquals(i % 3, entry.version);
+			assertEquals(i % Moves.COUNT, entry.move);
+			assertEquals(1000L * i, entry.latencyNanos);
+			Board expected = Board.of(fields.get(i % fields.size()));
+			for (int cell = 0; cell < Board.CELLS; cell++) {
+				assertEquals(expected.cell(cell), entry.board.cell(cell));
+			}
+		});
+
+		assertEquals(records, games.size());
+		for (int i = 0; i < records; i++) {
+			assertEquals(i, games.get(i));
+		}
+		try (Stream<Path> segments = Files.list(directory)) {
+			assertEquals(3, segments.count());
+		}
+	}
+
+	@Test
+	void keepsEveryRecordWhenWritersRollOverTogether() throws Exception {
+		Board board = Board.of(BoardCorpus.boards(BoardCorpus.Kind.OPEN, 1, 5).get(0));
+		DecisionJournal journal = new DecisionJournal(true, directory.toString(), 1, 8);
+		int writers = 4;
+		int each = 4_000;
+		Thread[] threads = new Thread[writers];
+		for (int w = 0; w < writers; w++) {
+			int first = w * each;
+			threads[w] = new Thread(() -> {
+				for (int i = first; i < first + each; i++) {
+					journal.record(i, 1, board, 0, Moves.FIRE, 0, i);
+				}
+			});
+			threads[w].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		journal.close();
+
+		boolean[] seen = new boolean[writers * each];
+		JournalReader.read(directory, entry -> {
+			assertEquals(entry.gameId, entry.latencyNanos);
+			assertEquals(Moves.FIRE, entry.move);
+			seen[entry.gameId] = true;
+		});
+		for (int i = 0; i < seen.length; i++) {
+			assertTrue(seen[i], "record " + i);
+		}
+		assertEquals(0, journal.dropped());
+	}
+}
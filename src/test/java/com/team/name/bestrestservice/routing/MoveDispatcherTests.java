@@ -0,0 +1,118 @@
+package com.team.name.bestrestservice.routing;
+
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.BoardCorpus;
+import com.team.name.bestrestservice.DecisionEngine;
+import com.team.name.bestrestservice.GameSession;
+import com.team.name.bestrestservice.GameSessionCache;
+import com.team.name.bestrestservice.Moves;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.SpaceshipAiV0;
+import com.team.name.bestrestservice.journal.DecisionJournal;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoveDispatcherTests {
+
+	private final Board board = Board.of(BoardCorpus.boards(BoardCorpus.Kind.OPEN, 1, 7).get(0));
+	private GameSessionCache sessions;
+	private Ponderer ponderer;
+	private MoveDispatcher dispatcher;
+
+	@AfterEach
+	void tearDown() {
+		dispatcher.shutdown();
+		ponderer.shutdown();
+		sessions.shutdown();
+	}
+
+	@Test
+	void keepsASkipFromTheRoutedEngine() {
+		DecisionMetrics metrics = new DecisionMetrics();
+		// The rule-based engine always fires, so any F would be its move
+		dispatcher(metrics, 60, status -> null);
+
+		assertNull(dispatcher.decide(new SpaceshipAI.GameStatus(board, 20, 1)));
+		assertEquals(1L, count(metrics, EngineRegistry.SEARCH, "null"));
+		assertEquals(0L, count(metrics, EngineRegistry.V1, "F"));
+	}
+
+	@Test
+	void answersWithTheFallbackWhenTheEngineMissesTheDeadline() throws Exception {
+		DecisionMetrics metrics = new DecisionMetrics();
+		dispatcher(metrics, 20, status -> {
+			try {
+				Thread.sleep(300);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "L";
+		});
+		long started = System.nanoTime();
+		assertEquals("F", dispatcher.decide(new SpaceshipAI.GameStatus(board, 20, 1)));
+		assertTrue(System.nanoTime() - started < TimeUnit.MILLISECONDS.toNanos(200));
+
+		// Recorded as the move that was sent once the late engine is done
+		long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (count(metrics, EngineRegistry.V1, "F") == 0 && System.nanoTime() < waitUntil) {
+			Thread.sleep(5);
+		}
+		assertEquals(1L, count(metrics, EngineRegistry.V1, "F"));
+		assertEquals(0L, count(metrics, EngineRegistry.SEARCH, "L"));
+	}
+
+	@Test
+	void dropsABatchItemThatCannotStartByItsDeadline() throws Exception {
+		DecisionMetrics metrics = new DecisionMetrics();
+		dispatcher(metrics, 60, status -> "L");
+		SpaceshipAI.GameStatus gameStatus = new SpaceshipAI.GameStatus(board, 20, 1);
+		gameStatus.setDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20));
+
+		// Another tick of the game holds the lock past the item's deadline
+		GameSession session = sessions.lock(1);
+		try {
+			assertEquals(Moves.NONE, dispatcher.decideItem(gameStatus));
+		} finally {
+			session.lock().unlock();
+		}
+
+		long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (session.lock().hasQueuedThreads() && System.nanoTime() < waitUntil) {
+			Thread.sleep(5);
+		}
+		session = sessions.lock(1);
+		try {
+			assertEquals(0, session.ticks());
+			assertNull(session.current());
+		} finally {
+			session.lock().unlock();
+		}
+		assertEquals(0L, count(metrics, EngineRegistry.SEARCH, "L"));
+		assertEquals(0L, count(metrics, EngineRegistry.V1, "F"));
+	}
+
+	private void dispatcher(DecisionMetrics metrics, long deadlineMillis, DecisionEngine search) {
+		EngineRegistry engines = new EngineRegistry(new SpaceshipAiV0(), status -> "F", search);
+		VersionRouter router = new VersionRouter();
+		router.changeDefaultVersion(EngineRegistry.SEARCH);
+		LoadGovernor governor = new LoadGovernor(deadlineMillis, 1000, 1000, 1000);
+		sessions = new GameSessionCache(16, 300, 3600, 1 << 20);
+		ponderer = new Ponderer(engines, governor, metrics, false, 1, 1, 1, 4096, 5);
+		dispatcher = new MoveDispatcher(sessions, engines, router, governor,
+				new DecisionJournal(false, "journal", 1, 1), ponderer, metrics, 0);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static long count(DecisionMetrics metrics, int version, String move) {
+		Map<String, Map<String, Long>> moves = (Map<String, Map<String, Long>>) metrics.snapshot().get("moves");
+		return moves.get("v" + version).get(move);
+	}
+}
@@ -0,0 +1,69 @@
+package com.team.name.bestrestservice.routing;
+
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.Forecast;
+import com.team.name.bestrestservice.GameSession;
+import com.team.name.bestrestservice.Moves;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import com.team.name.bestrestservice.search.SearchPool;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PondererTests {
+
+	@Test
+	void answersAForeseenBoardWithWhatItWouldHaveDecided() throws Exception {
+		String[][] field = new String[Board.SIZE][Board.SIZE];
+		for (String[] row : field) {
+			Arrays.fill(row, "_");
+		}
+		field[6][2] = "PE";
+		field[2][10] = "ES";
+		field[9][7] = "C";
+		Board board = Board.of(field);
+
+		SearchPool pool = new SearchPool(1, 0);
+		DecisionMetrics metrics = new DecisionMetrics();
+		Ponderer ponderer = new Ponderer(new EngineRegistry(pool, metrics, 5), new LoadGovernor(60, 1000, 0, 0), metrics,
+				true, 1, 8, 4, 4096, 5);
+		try {
+			GameSession session = new GameSession(1);
+			assertEquals(Moves.NONE, ponderer.take(session, board, 20, EngineRegistry.V1));
+			String move = decide(session, board, 20);
+			ponderer.ponder(session, status(session, board, 20), move, EngineRegistry.V1, LoadGovernor.Tier.FULL);
+
+			Board[] foreseen = new Board[4];
+			int count = Forecast.next(board, session.enemies(), Moves.of(move), foreseen);
+			assertTrue(count > 0);
+			long waitUntil = System.nanoTime() + 5_000_000_000L;
+			while (session.speculation().guesses() < count && System.nanoTime() < waitUntil) {
+				Thread.sleep(5);
+			}
+			String expected = decide(session.fork(), foreseen[0], 19);
+
+			assertEquals(Moves.of(expected), ponderer.take(session, foreseen[0], 19, EngineRegistry.V1));
+			// Each tick's guesses are used once
+			assertEquals(Moves.NONE, ponderer.take(session, foreseen[0], 19, EngineRegistry.V1));
+			assertEquals(1L, metrics.snapshot().get("ponderHits"));
+		} finally {
+			ponderer.shutdown();
+			pool.shutdown();
+		}
+	}
+
+	private static String decide(GameSession session, Board board, int narrowingIn) {
+		session.advance(board, narrowingIn);
+		return new SpaceshipAI().decideMove(status(session, board, narrowingIn));
+	}
+
+	private static SpaceshipAI.GameStatus status(GameSession session, Board board, int narrowingIn) {
+		SpaceshipAI.GameStatus gameStatus = new SpaceshipAI.GameStatus(board, narrowingIn, session.getGameId());
+		gameStatus.attach(session);
+		return gameStatus;
+	}
+}
@@ -0,0 +1,87 @@
+package com.team.name.bestrestservice.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.ValueInstantiationException;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.team.name.bestrestservice.controller.TaskResolveController;
+import com.team.name.bestrestservice.metrics.DecisionMetrics;
+import com.team.name.bestrestservice.search.SearchPool;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VersionRouterTests {
+
+	// Spring Boot's mapper reads /routing bodies through the constructor the same way
+	private final ObjectMapper mapper = new ObjectMapper().registerModule(new ParameterNamesModule());
+
+	@Test
+	void pinnedGamesComeBeforeTheCanaryAndTheDefault() {
+		VersionRouter router = new VersionRouter();
+		router.replace(new RoutingTable(EngineRegistry.V1, Map.of(7, EngineRegistry.V0), EngineRegistry.SEARCH, 100));
+
+		assertEquals(EngineRegistry.V0, router.route(7));
+		assertEquals(EngineRegistry.SEARCH, router.route(8));
+
+		router.changeDefaultVersion(EngineRegistry.V0);
+		assertEquals(EngineRegistry.V0, router.route(7));
+		assertEquals(EngineRegistry.SEARCH, router.route(8));
+	}
+
+	@Test
+	void canaryTakesItsShareOfGamesAndKeepsThem() {
+		RoutingTable table = new RoutingTable(EngineRegistry.V1, null, EngineRegistry.SEARCH, 25);
+		int canary = 0;
+		int games = 20_000;
+		for (int game = 0; game < games; game++) {
+			int version = table.route(game);
+			assertEquals(version, table.route(game));
+			if (version == EngineRegistry.SEARCH) {
+				canary++;
+			}
+		}
+		assertEquals(0.25, (double) canary / games, 0.02);
+		assertEquals(EngineRegistry.V1, new RoutingTable(EngineRegistry.V1, null, EngineRegistry.SEARCH, 0).route(3));
+	}
+
+	@Test
+	void refusesPercentagesOutsideZeroToHundred() throws Exception {
+		assertThrows(IllegalArgumentException.class, () -> new RoutingTable(EngineRegistry.V1, null, EngineRegistry.V0, 101));
+		assertThrows(IllegalArgumentException.class, () -> new RoutingTable(EngineRegistry.V1, null, EngineRegistry.V0, -1));
+		assertThrows(ValueInstantiationException.class,
+				() -> mapper.readValue("{\"defaultVersion\":1,\"canaryVersion\":0,\"canaryPercent\":150}", RoutingTable.class));
+
+		RoutingTable table = mapper.readValue("{\"defaultVersion\":1,\"canaryVersion\":0,\"canaryPercent\":100}", RoutingTable.class);
+		assertEquals(100, table.getCanaryPercent());
+	}
+
+	@Test
+	void routingEndpointRefusesUnknownVersions() {
+		SearchPool pool = new SearchPool(1, 0);
+		DecisionMetrics metrics = new DecisionMetrics();
+		VersionRouter router = new VersionRouter();
+		TaskResolveController controller = new TaskResolveController(null, new EngineRegistry(pool, metrics, 5), router,
+				null, null, null, null, metrics);
+		try {
+			RoutingTable before = router.table();
+			assertEquals(HttpStatus.BAD_REQUEST, controller.routing(new RoutingTable(9, null, null, null)).getStatusCode());
+			assertEquals(HttpStatus.BAD_REQUEST, controller.routing(new RoutingTable(EngineRegistry.V1, null, 9, 10)).getStatusCode());
+			assertEquals(HttpStatus.BAD_REQUEST,
+					controller.routing(new RoutingTable(EngineRegistry.V1, Map.of(4, 9), null, null)).getStatusCode());
+			assertSame(before, router.table());
+
+			RoutingTable table = new RoutingTable(EngineRegistry.V0, Map.of(4, EngineRegistry.SEARCH), null, null);
+			assertTrue(controller.routing(table).getStatusCode().is2xxSuccessful());
+			assertEquals(EngineRegistry.SEARCH, router.route(4));
+			assertEquals(EngineRegistry.V0, router.route(5));
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.team.name.bestrestservice.search;
+
+import com.team.name.bestrestservice.Board;
+import com.team.name.bestrestservice.EnemyTracker;
+import com.team.name.bestrestservice.Moves;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearcherTests {
+
+	@Test
+	void firesAtAnEnemyInItsLane() {
+		Searcher searcher = new Searcher(new TranspositionTable(16));
+
+		Board board = laneBoard();
+		assertEquals(Moves.FIRE, searcher.search(board, Searcher.odds(board, null), deadline()));
+		assertTrue(searcher.completedDepth() > 1);
+	}
+
+	@Test
+	void turnsToFaceAnEnemyLikelyToCloseIn() {
+		// One cell out of range and facing our ship: half the time it steps
+		// into range, where it fires whenever it holds
+		String[][] field = emptyField();
+		field[12][6] = "PE";
+		field[7][6] = "ES";
+		float[] odds = new float[4];
+		odds[EnemyTracker.MOVE] = 0.5f;
+		odds[EnemyTracker.HOLD] = 0.5f;
+		Searcher searcher = new Searcher(new TranspositionTable(16));
+
+		// Facing north, our shot gets it first once it comes
+		assertEquals(Moves.LEFT, searcher.search(Board.of(field), odds, deadline()));
+	}
+
+	@Test
+	void keepsTheRootMoveWhenTheTableLosesIt() throws Exception {
+		// A single slot that another thread keeps writing, as other games'
+		// searches do to the shared table
+		TranspositionTable table = new TranspositionTable(0);
+		AtomicBoolean done = new AtomicBoolean();
+		Thread other = new Thread(() -> {
+			for (long key = 1; !done.get(); key++) {
+				table.store(key, table.newSearch(), Searcher.MAX_DEPTH, Moves.NONE, 0f);
+			}
+		});
+		other.start();
+		try {
+			Searcher searcher = new Searcher(table);
+			Board board = laneBoard();
+			for (int i = 0; i < 20; i++) {
+				assertEquals(Moves.FIRE, searcher.search(board, Searcher.odds(board, null), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(5)));
+			}
+		} finally {
+			done.set(true);
+			other.join();
+		}
+	}
+
+	@Test
+	void searchesEveryMoveItselfWhenThePoolRefusesHelpers() {
+		SearchPool pool = new SearchPool(2, 2);
+		pool.shutdown();
+
+		// Each search borrows both helpers and has to hand them back
+		for (int i = 0; i < 3; i++) {
+			assertEquals(Moves.FIRE, pool.search(laneBoard(), null, deadline()));
+		}
+	}
+
+	@Test
+	void tableKeepsDeeperEntriesOfTheSameEpoch() {
+		TranspositionTable table = new TranspositionTable(4);
+		int age = table.newSearch();
+		table.store(1, age, 5, Moves.FIRE, 2.5f);
+
+		long entry = table.probe(1);
+		assertEquals(5, TranspositionTable.depth(entry));
+		assertEquals(Moves.FIRE, TranspositionTable.move(entry));
+		assertEquals(2.5f, TranspositionTable.score(entry));
+		// Same slot, other key: a shallower entry does not replace it
+		table.store(17, age, 3, Moves.LEFT, 1f);
+		assertEquals(0, table.probe(17));
+		assertEquals(Moves.FIRE, TranspositionTable.move(table.probe(1)));
+		table.store(17, age, 6, Moves.LEFT, 1f);
+		assertEquals(0, table.probe(1));
+		assertEquals(Moves.LEFT, TranspositionTable.move(table.probe(17)));
+	}
+
+	// Our ship faces east with an enemy two cells ahead facing away from it
+	private static Board laneBoard() {
+		String[][] field = emptyField();
+		field[6][3] = "PE";
+		field[6][5] = "EE";
+		return Board.of(field);
+	}
+
+	private static String[][] emptyField() {
+		String[][] field = new String[Board.SIZE][Board.SIZE];
+		for (String[] row : field) {
+			Arrays.fill(row, "_");
+		}
+		return field;
+	}
+
+	private static long deadline() {
+		return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+	}
+}
@@ -0,0 +1,54 @@
+package com.team.name.bestrestservice.sim;
+
+import com.team.name.bestrestservice.DecisionEngine;
+import com.team.name.bestrestservice.SpaceshipAI;
+import com.team.name.bestrestservice.SpaceshipAiV0;
+import com.team.name.bestrestservice.metrics.LatencyHistogram;
+import com.team.name.bestrestservice.search.SearchAI;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchTests {
+
+	@Test
+	void sameSeedPlaysTheSameGame() {
+		for (long seed = 1; seed <= 5; seed++) {
+			Match first = match(seed);
+			Match second = match(seed);
+
+			assertEquals(first.play(), second.play());
+			assertEquals(first.arena().tick(), second.arena().tick());
+			for (int seat = 0; seat < first.arena().ships(); seat++) {
+				assertEquals(first.arena().points(seat), second.arena().points(seat));
+				assertEquals(first.arena().alive(seat), second.arena().alive(seat));
+			}
+			assertTrue(first.arena().over());
+		}
+	}
+
+	@Test
+	void playsOnABoardFarLargerThanTheStandardOne() {
+		Arena.Settings settings = new Arena.Settings();
+		settings.size = 200;
+		settings.maxTicks = 40;
+		DecisionEngine[] seats = {new SpaceshipAiV0(), new SpaceshipAI(), new SearchAI(2), new SpaceshipAI()};
+		LatencyHistogram latency = new LatencyHistogram();
+		Match match = new Match(new Arena(settings, 7), seats, new LatencyHistogram[] {latency, latency, latency, latency}, 0);
+
+		match.play();
+
+		assertEquals(200 * 200, match.arena().view(0).cellCount());
+		assertTrue(match.arena().over());
+		assertTrue(latency.count() > 0);
+	}
+
+	private static Match match(long seed) {
+		Arena.Settings settings = new Arena.Settings();
+		DecisionEngine[] seats = {new SpaceshipAiV0(), new SpaceshipAI(), new SpaceshipAiV0(), new SpaceshipAI()};
+		LatencyHistogram latency = new LatencyHistogram();
+		LatencyHistogram[] latencies = {latency, latency, latency, latency};
+		return new Match(new Arena(settings, seed), seats, latencies, 0);
+	}
+}